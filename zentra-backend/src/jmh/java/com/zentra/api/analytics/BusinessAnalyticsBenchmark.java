@@ -0,0 +1,172 @@
+package com.zentra.api.analytics;
+
+import com.zentra.api.dto.BusinessAnalyticsDto;
+import com.zentra.api.model.Appointment;
+import com.zentra.api.model.AppointmentStatus;
+import com.zentra.api.model.BusinessDailyStats;
+import com.zentra.api.model.BusinessProfile;
+import com.zentra.api.model.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Yearly business analytics: the original buildAnalyticsDto, which streamed
+// over the appointment list once per metric, per status and per day, against
+// the single-pass accumulator over the same year's daily rollup rows
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusinessAnalyticsBenchmark {
+
+    @Param("50000")
+    private int appointments;
+
+    private SyntheticYear year;
+
+    @Setup
+    public void generate() {
+        year = new SyntheticYear(appointments, 42);
+    }
+
+    @Benchmark
+    public BusinessAnalyticsDto multiPassOverAppointments() {
+        return buildAnalyticsDto(year.business, year.appointments, year.startDate, year.endDate, year.today);
+    }
+
+    @Benchmark
+    public BusinessAnalyticsDto singlePassOverDailyStats() {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator(year.startDate, year.endDate, year.today);
+        for (BusinessDailyStats day : year.dailyStats) {
+            accumulator.add(day);
+        }
+        for (ServiceAggregate service : year.services) {
+            accumulator.add(service);
+        }
+        accumulator.estimateCustomers();
+        return accumulator.toDto(year.business);
+    }
+
+    // BusinessAnalyticsServiceImpl.buildAnalyticsDto as it was before the
+    // accumulator, with today passed in so runs are repeatable
+    private static BusinessAnalyticsDto buildAnalyticsDto(BusinessProfile businessProfile,
+                                                          List<Appointment> appointments,
+                                                          LocalDate startDate, LocalDate endDate,
+                                                          LocalDate today) {
+        BusinessAnalyticsDto dto = new BusinessAnalyticsDto();
+        dto.setBusinessId(businessProfile.getId());
+        dto.setBusinessName(businessProfile.getBusinessName());
+
+        int todayAppointments = (int) appointments.stream()
+                .filter(appointment -> appointment.getDate().equals(today))
+                .count();
+        dto.setTotalAppointmentsToday(todayAppointments);
+        dto.setTotalAppointmentsThisWeek(appointments.size());
+
+        int newBookings = (int) appointments.stream()
+                .filter(appointment -> appointment.getCreatedAt().toLocalDate().isAfter(startDate.minusDays(1))
+                        && appointment.getCreatedAt().toLocalDate().isBefore(endDate.plusDays(1)))
+                .count();
+        dto.setNewBookingsThisWeek(newBookings);
+
+        int cancelledAppointments = (int) appointments.stream()
+                .filter(appointment -> appointment.getStatus() == AppointmentStatus.CANCELLED)
+                .count();
+        dto.setCancelledAppointmentsThisWeek(cancelledAppointments);
+
+        BigDecimal totalRevenue = appointments.stream()
+                .filter(appointment -> appointment.getStatus() == AppointmentStatus.CONFIRMED
+                        || appointment.getStatus() == AppointmentStatus.COMPLETED)
+                .map(Appointment::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        dto.setRevenueThisWeek(totalRevenue);
+
+        Map<String, BigDecimal> dailyRevenue = new LinkedHashMap<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            final LocalDate currentDate = date;
+            BigDecimal revenue = appointments.stream()
+                    .filter(appointment -> appointment.getDate().equals(currentDate)
+                            && (appointment.getStatus() == AppointmentStatus.CONFIRMED
+                                || appointment.getStatus() == AppointmentStatus.COMPLETED))
+                    .map(Appointment::getPrice)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            dailyRevenue.put(currentDate.toString(), revenue);
+        }
+        dto.setDailyRevenue(dailyRevenue);
+
+        Map<String, Integer> appointmentsByStatus = new HashMap<>();
+        Arrays.stream(AppointmentStatus.values()).forEach(status -> {
+            int count = (int) appointments.stream()
+                    .filter(appointment -> appointment.getStatus() == status)
+                    .count();
+            appointmentsByStatus.put(status.name(), count);
+        });
+        dto.setAppointmentsByStatus(appointmentsByStatus);
+
+        Map<Service, Integer> serviceCountMap = new HashMap<>();
+        Map<Service, BigDecimal> serviceRevenueMap = new HashMap<>();
+        appointments.forEach(appointment -> {
+            Service service = appointment.getService();
+            serviceCountMap.put(service, serviceCountMap.getOrDefault(service, 0) + 1);
+            if (appointment.getStatus() == AppointmentStatus.CONFIRMED
+                    || appointment.getStatus() == AppointmentStatus.COMPLETED) {
+                BigDecimal currentRevenue = serviceRevenueMap.getOrDefault(service, BigDecimal.ZERO);
+                serviceRevenueMap.put(service, currentRevenue.add(appointment.getPrice()));
+            }
+        });
+        List<BusinessAnalyticsDto.ServiceStatsDto> topServices = serviceCountMap.entrySet().stream()
+                .map(entry -> {
+                    BusinessAnalyticsDto.ServiceStatsDto statsDto = new BusinessAnalyticsDto.ServiceStatsDto();
+                    statsDto.setServiceId(entry.getKey().getId());
+                    statsDto.setServiceName(entry.getKey().getName());
+                    statsDto.setBookingCount(entry.getValue());
+                    statsDto.setRevenue(serviceRevenueMap.getOrDefault(entry.getKey(), BigDecimal.ZERO));
+                    return statsDto;
+                })
+                .sorted(Comparator.comparing(BusinessAnalyticsDto.ServiceStatsDto::getBookingCount).reversed())
+                .limit(5)
+                .collect(Collectors.toList());
+        dto.setTopServices(topServices);
+
+        Set<Long> customerIds = appointments.stream()
+                .map(appointment -> appointment.getCustomer().getId())
+                .collect(Collectors.toSet());
+        dto.setTotalCustomers(customerIds.size());
+
+        Set<Long> newCustomerIds = appointments.stream()
+                .filter(appointment -> appointment.getCreatedAt().toLocalDate().isAfter(startDate.minusDays(1))
+                        && appointment.getCreatedAt().toLocalDate().isBefore(endDate.plusDays(1)))
+                .map(appointment -> appointment.getCustomer().getId())
+                .collect(Collectors.toSet());
+        dto.setNewCustomersThisWeek(newCustomerIds.size());
+
+        Set<Long> returningCustomers = new HashSet<>(customerIds);
+        returningCustomers.removeAll(newCustomerIds);
+        dto.setReturningCustomersThisWeek(returningCustomers.size());
+
+        return dto;
+    }
+}
@@ -0,0 +1,105 @@
+package com.zentra.api.analytics;
+
+import com.zentra.api.model.Appointment;
+import com.zentra.api.model.AppointmentStatus;
+import com.zentra.api.model.BusinessDailyStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Allocation of a year's revenue aggregation: total, per day and per service.
+// Summing BigDecimal prices allocates on every addition; summing cents as
+// longs does not, and the rollup path only touches one row per day. Read the
+// gc.alloc.rate.norm column (bytes per operation).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevenueAggregationBenchmark {
+
+    @Param("50000")
+    private int appointments;
+
+    private SyntheticYear year;
+    private int days;
+
+    @Setup
+    public void generate() {
+        year = new SyntheticYear(appointments, 42);
+        days = (int) ChronoUnit.DAYS.between(year.startDate, year.endDate) + 1;
+    }
+
+    @Benchmark
+    public void bigDecimalPerAppointment(Blackhole blackhole) {
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal[] daily = new BigDecimal[days];
+        Arrays.fill(daily, BigDecimal.ZERO);
+        Map<Long, BigDecimal> byService = new HashMap<>();
+        for (Appointment appointment : year.appointments) {
+            if (earns(appointment)) {
+                BigDecimal price = appointment.getPrice();
+                total = total.add(price);
+                int offset = (int) ChronoUnit.DAYS.between(year.startDate, appointment.getDate());
+                daily[offset] = daily[offset].add(price);
+                byService.merge(appointment.getService().getId(), price, BigDecimal::add);
+            }
+        }
+        blackhole.consume(total);
+        blackhole.consume(daily);
+        blackhole.consume(byService);
+    }
+
+    @Benchmark
+    public void centsPerAppointment(Blackhole blackhole) {
+        long total = 0;
+        long[] daily = new long[days];
+        long[] byService = new long[year.services.size() + 1];
+        List<Appointment> all = year.appointments;
+        for (int i = 0; i < all.size(); i++) {
+            Appointment appointment = all.get(i);
+            if (earns(appointment)) {
+                long price = year.priceCents[i];
+                total += price;
+                daily[(int) ChronoUnit.DAYS.between(year.startDate, appointment.getDate())] += price;
+                byService[appointment.getService().getId().intValue()] += price;
+            }
+        }
+        blackhole.consume(total);
+        blackhole.consume(daily);
+        blackhole.consume(byService);
+    }
+
+    // The current path: the accumulator summing cents over the year's rollup rows
+    @Benchmark
+    public AnalyticsAccumulator centsFromDailyStats() {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator(year.startDate, year.endDate, year.today);
+        for (BusinessDailyStats day : year.dailyStats) {
+            accumulator.add(day);
+        }
+        return accumulator;
+    }
+
+    private static boolean earns(Appointment appointment) {
+        return appointment.getStatus() == AppointmentStatus.CONFIRMED
+                || appointment.getStatus() == AppointmentStatus.COMPLETED;
+    }
+}
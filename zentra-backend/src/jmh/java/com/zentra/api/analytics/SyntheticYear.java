@@ -0,0 +1,141 @@
+package com.zentra.api.analytics;
+
+import com.zentra.api.model.Appointment;
+import com.zentra.api.model.AppointmentStatus;
+import com.zentra.api.model.BusinessDailyStats;
+import com.zentra.api.model.BusinessProfile;
+import com.zentra.api.model.Service;
+import com.zentra.api.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+// A year of appointments of one business, and the same year rolled up into
+// business_daily_stats rows and per-service totals the way the rollup stores
+// it, so benchmarks can compare the old appointment-based analytics with the
+// current rollup-based path on the same data
+final class SyntheticYear {
+
+    private static final int SERVICES = 20;
+    private static final int CUSTOMERS = 5_000;
+
+    final LocalDate startDate;
+    final LocalDate endDate;
+    final LocalDate today;
+    final BusinessProfile business = new BusinessProfile();
+    final List<Appointment> appointments = new ArrayList<>();
+    // Price of each appointment in cents, in the order of appointments
+    final long[] priceCents;
+    final List<BusinessDailyStats> dailyStats = new ArrayList<>();
+    final List<ServiceAggregate> services = new ArrayList<>();
+
+    SyntheticYear(int appointmentCount, long seed) {
+        startDate = LocalDate.of(2024, 1, 1);
+        endDate = LocalDate.of(2024, 12, 31);
+        today = LocalDate.of(2024, 6, 15);
+        business.setId(1L);
+        business.setBusinessName("Benchmark Salon");
+        priceCents = new long[appointmentCount];
+
+        Random random = new Random(seed);
+        List<Service> catalog = new ArrayList<>();
+        for (int i = 1; i <= SERVICES; i++) {
+            Service service = new Service();
+            service.setId((long) i);
+            service.setName("Service " + i);
+            service.setPrice(BigDecimal.valueOf(1_500 + random.nextInt(10_000), 2));
+            catalog.add(service);
+        }
+        List<User> customers = new ArrayList<>();
+        for (int i = 1; i <= CUSTOMERS; i++) {
+            User customer = new User();
+            customer.setId((long) i);
+            customers.add(customer);
+        }
+
+        AppointmentStatus[] statuses = AppointmentStatus.values();
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        for (int i = 0; i < appointmentCount; i++) {
+            Service service = catalog.get(random.nextInt(SERVICES));
+            LocalDate date = startDate.plusDays(random.nextInt(days));
+            Appointment appointment = new Appointment();
+            appointment.setId((long) i + 1);
+            appointment.setBusiness(business);
+            appointment.setService(service);
+            appointment.setCustomer(customers.get(random.nextInt(CUSTOMERS)));
+            appointment.setDate(date);
+            appointment.setStartTime(LocalTime.of(9 + random.nextInt(8), 0));
+            appointment.setEndTime(appointment.getStartTime().plusHours(1));
+            appointment.setDurationMinutes(60);
+            appointment.setPrice(service.getPrice());
+            appointment.setStatus(statuses[random.nextInt(statuses.length)]);
+            appointment.setCreatedAt(date.minusDays(random.nextInt(30)).atTime(12, 0));
+            appointments.add(appointment);
+            priceCents[i] = service.getPrice().movePointRight(2).longValueExact();
+        }
+        rollUp();
+    }
+
+    private void rollUp() {
+        Map<LocalDate, BusinessDailyStats> byDate = new TreeMap<>();
+        Map<LocalDate, HyperLogLog> sketches = new HashMap<>();
+        Map<Long, LocalDate> firstDayByCustomer = new HashMap<>();
+        Map<Long, long[]> serviceTotals = new TreeMap<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            BusinessDailyStats day = new BusinessDailyStats();
+            day.setBusinessId(business.getId());
+            day.setDate(date);
+            byDate.put(date, day);
+        }
+
+        for (int i = 0; i < appointments.size(); i++) {
+            Appointment appointment = appointments.get(i);
+            BusinessDailyStats day = byDate.get(appointment.getDate());
+            switch (appointment.getStatus()) {
+                case PENDING -> day.setPendingCount(day.getPendingCount() + 1);
+                case CONFIRMED -> day.setConfirmedCount(day.getConfirmedCount() + 1);
+                case COMPLETED -> day.setCompletedCount(day.getCompletedCount() + 1);
+                case CANCELLED -> day.setCancelledCount(day.getCancelledCount() + 1);
+                case NO_SHOW -> day.setNoShowCount(day.getNoShowCount() + 1);
+            }
+            boolean earning = appointment.getStatus() == AppointmentStatus.CONFIRMED
+                    || appointment.getStatus() == AppointmentStatus.COMPLETED;
+            if (earning) {
+                day.setRevenueCents(day.getRevenueCents() + priceCents[i]);
+            }
+            BusinessDailyStats created = byDate.get(appointment.getCreatedAt().toLocalDate());
+            if (created != null) {
+                created.setNewBookings(created.getNewBookings() + 1);
+            }
+            Long customerId = appointment.getCustomer().getId();
+            sketches.computeIfAbsent(appointment.getDate(), date -> new HyperLogLog()).add(customerId);
+            firstDayByCustomer.merge(customerId, appointment.getDate(),
+                    (first, date) -> date.isBefore(first) ? date : first);
+            long[] totals = serviceTotals.computeIfAbsent(appointment.getService().getId(), id -> new long[2]);
+            totals[0]++;
+            if (earning) {
+                totals[1] += priceCents[i];
+            }
+        }
+
+        firstDayByCustomer.values().forEach(date -> {
+            BusinessDailyStats day = byDate.get(date);
+            day.setNewCustomers(day.getNewCustomers() + 1);
+        });
+        byDate.forEach((date, day) -> {
+            HyperLogLog sketch = sketches.getOrDefault(date, new HyperLogLog());
+            day.setCustomerSketch(sketch.toBytes());
+        });
+        dailyStats.addAll(byDate.values());
+        serviceTotals.forEach((serviceId, totals) ->
+                services.add(new ServiceAggregate(serviceId, "Service " + serviceId, totals[0], totals[1])));
+    }
+}
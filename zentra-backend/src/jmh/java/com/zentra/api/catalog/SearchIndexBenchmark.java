@@ -0,0 +1,86 @@
+package com.zentra.api.catalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// First page of listing search over a generated catalog. Sample time mode
+// reports percentiles, so the p0.99 row is the search p99. The queries cover
+// a term in most listings, prefixes of common and rare terms, a one-letter
+// prefix and a two-term query.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchIndexBenchmark {
+
+    private static final String[] NAME_WORDS = {
+            "Bella", "Kral", "Sultan", "Golden", "Urban", "Royal", "Elite", "Modern", "Classic", "Istanbul",
+            "Moda", "Nova", "Luna", "Zen", "Vita", "Prime", "Star", "Mavi", "Yildiz", "Deniz"};
+    private static final String[] KINDS = {
+            "Salon", "Barber", "Spa", "Studio", "Fitness", "Nails", "Beauty", "Wellness", "Hair", "Clinic"};
+    private static final String[] SERVICES = {
+            "Haircut", "Beard Trim", "Coloring", "Manicure", "Pedicure", "Massage", "Facial", "Waxing",
+            "Personal Training", "Yoga Class", "Blow Dry", "Keratin Treatment", "Eyebrow Threading"};
+    private static final String[] CITIES = {
+            "Istanbul", "Ankara", "Izmir", "Bursa", "Antalya", "Konya", "Adana", "Eskisehir"};
+    private static final String[] DESCRIPTION_WORDS = {
+            "friendly", "professional", "relaxing", "experienced", "team", "walk", "ins", "welcome", "premium",
+            "affordable", "organic", "products", "family", "owned", "since", "downtown", "parking", "appointments"};
+
+    @Param("100000")
+    private int listings;
+
+    @Param({"hair", "sal", "barb", "kerat", "s", "istanbul haircut"})
+    private String query;
+
+    private SearchIndex index;
+
+    @Setup
+    public void build() {
+        Random random = new Random(42);
+        SearchIndex.Builder builder = new SearchIndex.Builder();
+        for (int i = 0; i < listings; i++) {
+            builder.nextListing();
+            // A unique number keeps the term dictionary growing with the catalog, as real names do
+            builder.add(pick(random, NAME_WORDS) + " " + pick(random, KINDS) + " " + i, SearchIndex.NAME_WEIGHT);
+            builder.add(description(random), SearchIndex.DESCRIPTION_WEIGHT);
+            builder.add(pick(random, CITIES), SearchIndex.CITY_WEIGHT);
+            int services = 1 + random.nextInt(5);
+            for (int s = 0; s < services; s++) {
+                builder.add(pick(random, SERVICES), SearchIndex.SERVICE_WEIGHT);
+            }
+        }
+        index = builder.build();
+    }
+
+    @Benchmark
+    public int[] firstPage() {
+        return index.search(query, 0, 20);
+    }
+
+    private static String description(Random random) {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            description.append(pick(random, DESCRIPTION_WORDS)).append(' ');
+        }
+        return description.toString();
+    }
+
+    private static String pick(Random random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+}
@@ -0,0 +1,133 @@
+package com.zentra.api.analytics;
+
+import com.zentra.api.dto.BusinessAnalyticsDto;
+import com.zentra.api.model.AppointmentStatus;
+import com.zentra.api.model.BusinessDailyStats;
+import com.zentra.api.model.BusinessProfile;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Assembles business analytics for a period in a single pass over its
+// business_daily_stats rows and per-service totals. Revenue is summed in cents,
+// daily revenue is an array indexed by day offset from the start of the
+// period and status counts are indexed by ordinal.
+public class AnalyticsAccumulator {
+
+    private static final int TOP_SERVICES = 5;
+    private static final AppointmentStatus[] STATUSES = AppointmentStatus.values();
+
+    private final LocalDate startDate;
+    private final LocalDate today;
+
+    private int totalAppointments;
+    private int todayAppointments;
+    private int newBookings;
+    private long revenueCents;
+    private final long[] dailyRevenueCents;
+    private final int[] statusCounts = new int[STATUSES.length];
+    private final List<BusinessAnalyticsDto.ServiceStatsDto> services = new ArrayList<>();
+    private long customers;
+    private long newCustomers;
+    private final HyperLogLog customerSketch = new HyperLogLog();
+    private boolean customerSketchComplete = true;
+
+    public AnalyticsAccumulator(LocalDate startDate, LocalDate endDate, LocalDate today) {
+        this.startDate = startDate;
+        this.today = today;
+        this.dailyRevenueCents = new long[(int) ChronoUnit.DAYS.between(startDate, endDate) + 1];
+    }
+
+    public void add(BusinessDailyStats day) {
+        int appointments = day.getPendingCount() + day.getConfirmedCount() + day.getCompletedCount()
+                + day.getCancelledCount() + day.getNoShowCount();
+
+        totalAppointments += appointments;
+        if (day.getDate().equals(today)) {
+            todayAppointments += appointments;
+        }
+        statusCounts[AppointmentStatus.PENDING.ordinal()] += day.getPendingCount();
+        statusCounts[AppointmentStatus.CONFIRMED.ordinal()] += day.getConfirmedCount();
+        statusCounts[AppointmentStatus.COMPLETED.ordinal()] += day.getCompletedCount();
+        statusCounts[AppointmentStatus.CANCELLED.ordinal()] += day.getCancelledCount();
+        statusCounts[AppointmentStatus.NO_SHOW.ordinal()] += day.getNoShowCount();
+        newBookings += day.getNewBookings();
+        newCustomers += day.getNewCustomers();
+        if (day.getCustomerSketch() != null) {
+            customerSketch.merge(day.getCustomerSketch());
+        } else {
+            customerSketchComplete = false;
+        }
+
+        // Rollup revenue already only counts confirmed and completed appointments
+        revenueCents += day.getRevenueCents();
+        int offset = (int) ChronoUnit.DAYS.between(startDate, day.getDate());
+        if (offset >= 0 && offset < dailyRevenueCents.length) {
+            dailyRevenueCents[offset] += day.getRevenueCents();
+        }
+    }
+
+    public void add(ServiceAggregate service) {
+        services.add(new BusinessAnalyticsDto.ServiceStatsDto(
+                service.serviceId(), service.serviceName(), service.bookings().intValue(),
+                Cents.toAmount(service.revenueCents())));
+    }
+
+    public void setCustomers(long customers) {
+        this.customers = customers;
+    }
+
+    // Whether every day added so far has a customer sketch, so estimateCustomers can be used
+    public boolean hasCustomerSketches() {
+        return customerSketchComplete;
+    }
+
+    // Approximate distinct customers from the merged day sketches, never fewer than the new customers
+    public void estimateCustomers() {
+        this.customers = Math.max(customerSketch.estimate(), newCustomers);
+    }
+
+    public BusinessAnalyticsDto toDto(BusinessProfile businessProfile) {
+        BusinessAnalyticsDto dto = new BusinessAnalyticsDto();
+        dto.setBusinessId(businessProfile.getId());
+        dto.setBusinessName(businessProfile.getBusinessName());
+
+        dto.setTotalAppointmentsToday(todayAppointments);
+        dto.setTotalAppointmentsThisWeek(totalAppointments);
+        dto.setNewBookingsThisWeek(newBookings);
+        dto.setCancelledAppointmentsThisWeek(statusCounts[AppointmentStatus.CANCELLED.ordinal()]);
+        dto.setRevenueThisWeek(Cents.toAmount(revenueCents));
+
+        Map<String, BigDecimal> dailyRevenueByDate = new LinkedHashMap<>();
+        for (int day = 0; day < dailyRevenueCents.length; day++) {
+            dailyRevenueByDate.put(startDate.plusDays(day).toString(), Cents.toAmount(dailyRevenueCents[day]));
+        }
+        dto.setDailyRevenue(dailyRevenueByDate);
+
+        Map<String, Integer> appointmentsByStatus = new LinkedHashMap<>();
+        for (AppointmentStatus status : STATUSES) {
+            appointmentsByStatus.put(status.name(), statusCounts[status.ordinal()]);
+        }
+        dto.setAppointmentsByStatus(appointmentsByStatus);
+
+        List<BusinessAnalyticsDto.ServiceStatsDto> topServices = services.stream()
+                .sorted(Comparator.comparing(BusinessAnalyticsDto.ServiceStatsDto::getBookingCount).reversed())
+                .limit(TOP_SERVICES)
+                .collect(Collectors.toList());
+        dto.setTopServices(topServices);
+
+        // Customers whose first appointment falls in the period are new, the rest are returning
+        dto.setTotalCustomers((int) customers);
+        dto.setNewCustomersThisWeek((int) newCustomers);
+        dto.setReturningCustomersThisWeek((int) (customers - newCustomers));
+
+        return dto;
+    }
+}
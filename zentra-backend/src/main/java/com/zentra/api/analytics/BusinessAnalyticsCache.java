@@ -0,0 +1,113 @@
+package com.zentra.api.analytics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.zentra.api.event.AppointmentChangedEvent;
+import com.zentra.api.event.CatalogChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Computed analytics per business and period. A business's entries go stale
+// once a change to one of its appointments, its profile or its services
+// commits. Periods that include today also expire at midnight, since "today"
+// moves; periods that ended before today only change through those changes
+// and are kept until evicted.
+@Component
+public class BusinessAnalyticsCache {
+
+    // Each period type always caches the same result type
+    public enum Period {
+        DAILY, WEEKLY, MONTHLY, YEARLY, CUSTOM,
+        WEEKLY_COMPARISON, MONTHLY_COMPARISON, CUSTOM_COMPARISON
+    }
+
+    private final Cache<Key, Object> cache;
+
+    // Part of every key and bumped on every invalidation, so a result computed
+    // from data read before the change can never be served after it. Entries
+    // of older generations are never read again and age out through the size
+    // bound and expiry instead of being searched for.
+    private final ConcurrentHashMap<Long, Long> generations = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BusinessAnalyticsCache(
+            MeterRegistry meterRegistry,
+            @Value("${zentra.analytics.cache.max-entries:5000}") long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new UntilStale())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "businessAnalytics");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long businessId, Period period, boolean exact, LocalDate startDate, LocalDate endDate,
+                     Supplier<T> loader) {
+        long generation = generations.getOrDefault(businessId, 0L);
+        Key key = new Key(businessId, generation, period, exact, startDate, endDate);
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        // Loaded outside the cache so a slow query holds no lock on the key's
+        // bin, and only kept if no invalidation happened meanwhile
+        T value = loader.get();
+        if (generations.getOrDefault(businessId, 0L) == generation) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    // Runs after commit, or straight away when published outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        invalidate(event.businessId());
+    }
+
+    // Business and service names appear in the results, so renames invalidate too
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        invalidate(event.businessId());
+    }
+
+    public void invalidate(Long businessId) {
+        generations.merge(businessId, 1L, Long::sum);
+    }
+
+    private record Key(Long businessId, long generation, Period period, boolean exact, LocalDate startDate,
+                       LocalDate endDate) {
+    }
+
+    private static final class UntilStale implements Expiry<Key, Object> {
+        @Override
+        public long expireAfterCreate(Key key, Object value, long currentTime) {
+            LocalDateTime now = LocalDateTime.now();
+            if (key.endDate().isBefore(now.toLocalDate())) {
+                return Long.MAX_VALUE;
+            }
+            return Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.zentra.api.analytics;
+
+import com.zentra.api.model.Appointment;
+import com.zentra.api.repository.AppointmentRepository;
+import com.zentra.api.repository.BusinessDailyStatsRepository;
+import com.zentra.api.repository.BusinessProfileRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps business_daily_stats in step with the appointments table. The
+// appointment service reports every appointment it is about to change; the
+// affected days are recomputed from the appointments table just before the
+// transaction commits, so the rollup commits or rolls back with the change.
+@Component
+public class BusinessDailyStatsRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessDailyStatsRollup.class);
+
+    private final BusinessDailyStatsRepository statsRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final BusinessProfileRepository businessProfileRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BusinessAnalyticsCache analyticsCache;
+    private final ExecutorService rebuilder =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("daily-stats-rebuild-"));
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    @Autowired
+    public BusinessDailyStatsRollup(
+            BusinessDailyStatsRepository statsRepository,
+            AppointmentRepository appointmentRepository,
+            BusinessProfileRepository businessProfileRepository,
+            TransactionTemplate transactionTemplate,
+            BusinessAnalyticsCache analyticsCache) {
+        this.statsRepository = statsRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.businessProfileRepository = businessProfileRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.analyticsCache = analyticsCache;
+    }
+
+    // Call before an appointment is created, moved, deleted or changes status,
+    // inside the transaction making the change
+    public void recordChange(Appointment appointment) {
+        PendingRefresh pending = pendingRefresh();
+        Long businessId = appointment.getBusiness().getId();
+        pending.appointments.add(appointment);
+        pending.addDay(businessId, appointment.getDate());
+        if (appointment.getCreatedAt() != null) {
+            pending.addDay(businessId, appointment.getCreatedAt().toLocalDate());
+        }
+
+        // The customer's first day decides who counts as new; it may move with this change
+        Long customerId = appointment.getCustomer().getId();
+        if (pending.customers.computeIfAbsent(businessId, id -> new TreeSet<>()).add(customerId)) {
+            pending.addDay(businessId, appointmentRepository.findFirstAppointmentDate(businessId, customerId));
+        }
+    }
+
+    // Recompute every day of one business from scratch
+    public void rebuild(Long businessId) {
+        List<LocalDate> dates = statsRepository.findRollupDates(businessId);
+        if (!dates.isEmpty()) {
+            refresh(businessId, new TreeSet<>(dates));
+        }
+    }
+
+    // The rebuild takes long enough to hold up the other scheduled tasks, which
+    // share one scheduler thread, so it runs on its own thread
+    @Scheduled(cron = "${zentra.analytics.rollup-rebuild-cron:0 30 3 * * SUN}")
+    public void scheduleRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                try {
+                    rebuildAll();
+                } catch (RuntimeException e) {
+                    logger.error("Could not rebuild daily stats", e);
+                } finally {
+                    rebuildQueued.set(false);
+                }
+            });
+        }
+    }
+
+    // Heals any drift, one business per transaction; cached analytics of a
+    // business are dropped once its rebuilt days have committed
+    public void rebuildAll() {
+        List<Long> businessIds = businessProfileRepository.findAllIds();
+        for (Long businessId : businessIds) {
+            transactionTemplate.executeWithoutResult(status -> rebuild(businessId));
+            analyticsCache.invalidate(businessId);
+        }
+        logger.info("Rebuilt daily stats for {} businesses", businessIds.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void refresh(Long businessId, TreeSet<LocalDate> dates) {
+        statsRepository.lockDays(businessId, dates.first(), dates.last(), dates);
+        statsRepository.refreshDays(businessId, dates);
+        statsRepository.deleteServiceDays(businessId, dates);
+        statsRepository.insertServiceDays(businessId, dates);
+        refreshCustomerSketches(businessId, dates);
+    }
+
+    // Sketches are built here rather than in SQL; days without customers keep
+    // the empty sketch refreshDays left them with
+    private void refreshCustomerSketches(Long businessId, Collection<LocalDate> dates) {
+        Map<LocalDate, HyperLogLog> sketches = new TreeMap<>();
+        for (CustomerDay customerDay : appointmentRepository.findCustomerDays(businessId, dates)) {
+            sketches.computeIfAbsent(customerDay.date(), date -> new HyperLogLog()).add(customerDay.customerId());
+        }
+        if (sketches.isEmpty()) {
+            return;
+        }
+        LocalDate[] sketchDates = sketches.keySet().toArray(LocalDate[]::new);
+        String[] encoded = sketches.values().stream()
+                .map(sketch -> HexFormat.of().formatHex(sketch.toBytes()))
+                .toArray(String[]::new);
+        statsRepository.updateCustomerSketches(businessId, sketchDates, encoded);
+    }
+
+    private void refreshPending(PendingRefresh pending) {
+        // The state after the change: where the appointments are now, and
+        // each customer's first day once the change is applied
+        for (Appointment appointment : pending.appointments) {
+            Long businessId = appointment.getBusiness().getId();
+            pending.addDay(businessId, appointment.getDate());
+            if (appointment.getCreatedAt() != null) {
+                pending.addDay(businessId, appointment.getCreatedAt().toLocalDate());
+            }
+        }
+        pending.customers.forEach((businessId, customerIds) -> customerIds.forEach(customerId ->
+                pending.addDay(businessId, appointmentRepository.findFirstAppointmentDate(businessId, customerId))));
+
+        // Businesses in id order and days in date order, so concurrent refreshes lock rows in the same order
+        pending.days.forEach(this::refresh);
+    }
+
+    private PendingRefresh pendingRefresh() {
+        PendingRefresh pending = (PendingRefresh) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Appointment changes must run in a transaction");
+        }
+        PendingRefresh created = new PendingRefresh();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                refreshPending(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BusinessDailyStatsRollup.this);
+            }
+        });
+        return created;
+    }
+
+    private static final class PendingRefresh {
+        private final Map<Long, TreeSet<LocalDate>> days = new TreeMap<>();
+        private final Map<Long, Set<Long>> customers = new HashMap<>();
+        private final Collection<Appointment> appointments = new ArrayList<>();
+
+        private void addDay(Long businessId, LocalDate date) {
+            if (date != null) {
+                days.computeIfAbsent(businessId, id -> new TreeSet<>()).add(date);
+            }
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.zentra.api.analytics;
+
+// Appointments and revenue of one business summed over a period
+public record BusinessTotals(Long businessId, String businessName, String category, Long appointments,
+                             Long revenueCents) {
+}
@@ -0,0 +1,18 @@
+package com.zentra.api.analytics;
+
+import java.math.BigDecimal;
+
+// Money as a long count of cents. The rollup stores revenue in cents and
+// analytics sums it as longs, only turning totals into BigDecimal when
+// building DTOs instead of allocating a new BigDecimal on every addition.
+public final class Cents {
+
+    private static final int SCALE = 2;
+
+    private Cents() {
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+}
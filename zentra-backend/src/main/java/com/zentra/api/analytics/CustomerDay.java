@@ -0,0 +1,7 @@
+package com.zentra.api.analytics;
+
+import java.time.LocalDate;
+
+// A customer with at least one appointment on a day
+public record CustomerDay(LocalDate date, Long customerId) {
+}
@@ -0,0 +1,7 @@
+package com.zentra.api.analytics;
+
+import java.time.LocalDate;
+
+// One histogram column of a business_daily_stats row
+public record DailyCounts(LocalDate date, int[] counts) {
+}
@@ -0,0 +1,9 @@
+package com.zentra.api.analytics;
+
+import java.time.LocalDate;
+
+// One business_daily_stats row as written to an analytics report
+public record DailyReportRow(LocalDate date, int pendingCount, int confirmedCount, int completedCount,
+                             int cancelledCount, int noShowCount, long revenueCents, int newBookings,
+                             int newCustomers, int returningCustomers) {
+}
@@ -0,0 +1,5 @@
+package com.zentra.api.analytics;
+
+// Distinct customers with an appointment in the previous and current periods of a comparison
+public record PeriodCustomerCounts(Long previous, Long current) {
+}
@@ -0,0 +1,16 @@
+package com.zentra.api.analytics;
+
+// Bookings and revenue of one service summed over the previous and the
+// current period of a comparison
+public record PeriodServiceAggregate(Long serviceId, String serviceName,
+                                     Long previousBookings, Long previousRevenueCents,
+                                     Long currentBookings, Long currentRevenueCents) {
+
+    public ServiceAggregate previous() {
+        return new ServiceAggregate(serviceId, serviceName, previousBookings, previousRevenueCents);
+    }
+
+    public ServiceAggregate current() {
+        return new ServiceAggregate(serviceId, serviceName, currentBookings, currentRevenueCents);
+    }
+}
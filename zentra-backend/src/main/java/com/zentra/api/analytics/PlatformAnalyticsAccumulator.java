@@ -0,0 +1,116 @@
+package com.zentra.api.analytics;
+
+import com.zentra.api.dto.PlatformAnalyticsDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+// Partial platform analytics over some of the businesses. Partials for
+// disjoint sets of businesses can be merged in any grouping, so chunks can be
+// aggregated independently and combined as they finish. Revenue is summed in
+// cents.
+public class PlatformAnalyticsAccumulator {
+
+    private static final int TOP_BUSINESSES = 10;
+    private static final Comparator<PlatformAnalyticsDto.BusinessStatsDto> BY_REVENUE =
+            Comparator.comparing(PlatformAnalyticsDto.BusinessStatsDto::getRevenue)
+                    .thenComparingLong(PlatformAnalyticsDto.BusinessStatsDto::getAppointmentCount)
+                    .reversed()
+                    .thenComparing(PlatformAnalyticsDto.BusinessStatsDto::getBusinessId);
+
+    private int businesses;
+    private int businessesWithAppointments;
+    private long appointments;
+    private long revenueCents;
+    private final TreeMap<String, Long> appointmentsByCategory = new TreeMap<>();
+    private final TreeMap<String, Long> revenueCentsByCategory = new TreeMap<>();
+    private final HyperLogLog customerSketch = new HyperLogLog();
+    private boolean customerSketchComplete = true;
+
+    // Sorted by BY_REVENUE and never longer than TOP_BUSINESSES
+    private final List<PlatformAnalyticsDto.BusinessStatsDto> topBusinesses = new ArrayList<>();
+
+    public void add(BusinessTotals totals) {
+        String category = totals.category();
+        businesses++;
+        if (totals.appointments() > 0) {
+            businessesWithAppointments++;
+        }
+        appointments += totals.appointments();
+        revenueCents += totals.revenueCents();
+        appointmentsByCategory.merge(category, totals.appointments(), Long::sum);
+        revenueCentsByCategory.merge(category, totals.revenueCents(), Long::sum);
+        offerTopBusiness(new PlatformAnalyticsDto.BusinessStatsDto(
+                totals.businessId(), totals.businessName(), category, totals.appointments(),
+                Cents.toAmount(totals.revenueCents())));
+    }
+
+    // A null sketch is a day the rollup has not computed one for yet
+    public void addCustomerSketch(byte[] sketch) {
+        if (sketch != null) {
+            customerSketch.merge(sketch);
+        } else {
+            customerSketchComplete = false;
+        }
+    }
+
+    public boolean hasCustomerSketches() {
+        return customerSketchComplete;
+    }
+
+    public long estimateCustomers() {
+        return customerSketch.estimate();
+    }
+
+    public PlatformAnalyticsAccumulator merge(PlatformAnalyticsAccumulator other) {
+        businesses += other.businesses;
+        businessesWithAppointments += other.businessesWithAppointments;
+        appointments += other.appointments;
+        revenueCents += other.revenueCents;
+        other.appointmentsByCategory.forEach((category, count) ->
+                appointmentsByCategory.merge(category, count, Long::sum));
+        other.revenueCentsByCategory.forEach((category, cents) ->
+                revenueCentsByCategory.merge(category, cents, Long::sum));
+        other.topBusinesses.forEach(this::offerTopBusiness);
+        customerSketch.merge(other.customerSketch);
+        customerSketchComplete &= other.customerSketchComplete;
+        return this;
+    }
+
+    public PlatformAnalyticsDto toDto(LocalDate startDate, LocalDate endDate, long customers) {
+        PlatformAnalyticsDto dto = new PlatformAnalyticsDto();
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setTotalBusinesses(businesses);
+        dto.setBusinessesWithAppointments(businessesWithAppointments);
+        dto.setTotalAppointments(appointments);
+        dto.setTotalRevenue(Cents.toAmount(revenueCents));
+        dto.setTotalCustomers(customers);
+        dto.setAppointmentsByCategory(appointmentsByCategory);
+        TreeMap<String, BigDecimal> revenueByCategory = new TreeMap<>();
+        revenueCentsByCategory.forEach((category, cents) -> revenueByCategory.put(category, Cents.toAmount(cents)));
+        dto.setRevenueByCategory(revenueByCategory);
+        dto.setTopBusinesses(topBusinesses);
+        return dto;
+    }
+
+    private void offerTopBusiness(PlatformAnalyticsDto.BusinessStatsDto business) {
+        if (business.getAppointmentCount() == 0) {
+            return;
+        }
+        if (topBusinesses.size() == TOP_BUSINESSES
+                && BY_REVENUE.compare(business, topBusinesses.get(TOP_BUSINESSES - 1)) >= 0) {
+            return;
+        }
+        int position = -Collections.binarySearch(topBusinesses, business, BY_REVENUE) - 1;
+        topBusinesses.add(position, business);
+        if (topBusinesses.size() > TOP_BUSINESSES) {
+            topBusinesses.remove(TOP_BUSINESSES);
+        }
+    }
+}
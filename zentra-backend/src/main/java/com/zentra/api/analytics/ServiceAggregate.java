@@ -0,0 +1,5 @@
+package com.zentra.api.analytics;
+
+// Bookings and revenue of one service summed over a period
+public record ServiceAggregate(Long serviceId, String serviceName, Long bookings, Long revenueCents) {
+}
@@ -0,0 +1,8 @@
+package com.zentra.api.availability;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// The time a non-cancelled appointment holds on its day; staffId is null when no staff member is assigned
+public record BookedInterval(Long appointmentId, Long staffId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+}
@@ -0,0 +1,129 @@
+package com.zentra.api.availability;
+
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Occupancy of one business day as a bitset with one bit per granularity slot.
+// Intervals are kept per appointment so a release can restore bits that other
+// appointments still cover.
+public class DayOccupancy {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int granularityMinutes;
+    private final long[] words;
+    private final Map<Long, int[]> intervals = new HashMap<>();
+
+    public DayOccupancy(int granularityMinutes) {
+        if (granularityMinutes <= 0 || MINUTES_PER_DAY % granularityMinutes != 0) {
+            throw new IllegalArgumentException("Granularity must divide a day evenly: " + granularityMinutes);
+        }
+        this.granularityMinutes = granularityMinutes;
+        int slots = MINUTES_PER_DAY / granularityMinutes;
+        this.words = new long[(slots + 63) >>> 6];
+    }
+
+    public synchronized void occupy(Long appointmentId, LocalTime startTime, LocalTime endTime) {
+        int from = startSlot(startTime);
+        int to = endSlot(startTime, endTime);
+        int[] previous = intervals.put(appointmentId, new int[]{from, to});
+        if (previous != null) {
+            clearAndRestore(previous[0], previous[1]);
+        }
+        setRange(from, to);
+    }
+
+    public synchronized void release(Long appointmentId) {
+        int[] interval = intervals.remove(appointmentId);
+        if (interval != null) {
+            clearAndRestore(interval[0], interval[1]);
+        }
+    }
+
+    public synchronized boolean isFree(LocalTime startTime, LocalTime endTime) {
+        return !anySet(startSlot(startTime), endSlot(startTime, endTime));
+    }
+
+    private int startSlot(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / granularityMinutes;
+    }
+
+    private int endSlot(LocalTime startTime, LocalTime endTime) {
+        int minutes = endTime.getHour() * 60 + endTime.getMinute() + (endTime.getSecond() > 0 ? 1 : 0);
+        // An end time at or before the start means the interval ran past midnight
+        if (!endTime.isAfter(startTime)) {
+            minutes = MINUTES_PER_DAY;
+        }
+        return (minutes + granularityMinutes - 1) / granularityMinutes;
+    }
+
+    private void clearAndRestore(int from, int to) {
+        clearRange(from, to);
+        for (int[] other : intervals.values()) {
+            if (other[0] < to && other[1] > from) {
+                setRange(Math.max(from, other[0]), Math.min(to, other[1]));
+            }
+        }
+    }
+
+    private void setRange(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    private void clearRange(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[first] &= ~firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = 0L;
+        }
+        words[last] &= ~lastMask;
+    }
+
+    private boolean anySet(int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            return (words[first] & firstMask & lastMask) != 0;
+        }
+        if ((words[first] & firstMask) != 0) {
+            return true;
+        }
+        for (int i = first + 1; i < last; i++) {
+            if (words[i] != 0) {
+                return true;
+            }
+        }
+        return (words[last] & lastMask) != 0;
+    }
+}
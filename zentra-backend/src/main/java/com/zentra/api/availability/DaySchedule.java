@@ -0,0 +1,92 @@
+package com.zentra.api.availability;
+
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// All resource timelines of one business day: one occupancy bitset per staff
+// member plus one for appointments that have no staff assigned (businesses
+// without staff, or bookings made before staff assignment existed).
+public class DaySchedule {
+
+    private final int granularityMinutes;
+    private final Map<Long, DayOccupancy> staffTimelines = new HashMap<>();
+    private final DayOccupancy unassigned;
+    private final Map<Long, Long> appointmentStaff = new HashMap<>();
+
+    public DaySchedule(int granularityMinutes) {
+        this.granularityMinutes = granularityMinutes;
+        this.unassigned = new DayOccupancy(granularityMinutes);
+    }
+
+    public synchronized void occupy(Long appointmentId, Long staffId, LocalTime startTime, LocalTime endTime) {
+        // The appointment may be moving from another staff member
+        release(appointmentId);
+        timeline(staffId).occupy(appointmentId, startTime, endTime);
+        appointmentStaff.put(appointmentId, staffId);
+    }
+
+    public synchronized void release(Long appointmentId) {
+        if (appointmentStaff.containsKey(appointmentId)) {
+            timeline(appointmentStaff.remove(appointmentId)).release(appointmentId);
+        }
+    }
+
+    public synchronized boolean isStaffFree(Long staffId, LocalTime startTime, LocalTime endTime,
+                                            Collection<SlotHold> holds) {
+        DayOccupancy timeline = staffTimelines.get(staffId);
+        if (timeline != null && !timeline.isFree(startTime, endTime)) {
+            return false;
+        }
+        for (SlotHold hold : holds) {
+            if (staffId.equals(hold.staffId()) && hold.overlaps(startTime, endTime)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // First qualified staff member who is free for the whole interval, or null
+    public synchronized Long findFreeStaff(Collection<Long> qualifiedStaffIds, LocalTime startTime, LocalTime endTime,
+                                           Collection<SlotHold> holds) {
+        for (Long staffId : qualifiedStaffIds) {
+            if (isStaffFree(staffId, startTime, endTime, holds)) {
+                return staffId;
+            }
+        }
+        return null;
+    }
+
+    // Number of additional bookings the interval can take. Without qualified
+    // staff the business is a single resource; unassigned appointments and
+    // holds take one unit of capacity away from the staffed pool.
+    public synchronized int remainingCapacity(Collection<Long> qualifiedStaffIds, LocalTime startTime, LocalTime endTime,
+                                              Collection<SlotHold> holds) {
+        int capacity = 1;
+        if (!qualifiedStaffIds.isEmpty()) {
+            capacity = 0;
+            for (Long staffId : qualifiedStaffIds) {
+                if (isStaffFree(staffId, startTime, endTime, holds)) {
+                    capacity++;
+                }
+            }
+        }
+        if (!unassigned.isFree(startTime, endTime)) {
+            capacity--;
+        }
+        for (SlotHold hold : holds) {
+            if (hold.staffId() == null && hold.overlaps(startTime, endTime)) {
+                capacity--;
+            }
+        }
+        return Math.max(capacity, 0);
+    }
+
+    private DayOccupancy timeline(Long staffId) {
+        if (staffId == null) {
+            return unassigned;
+        }
+        return staffTimelines.computeIfAbsent(staffId, id -> new DayOccupancy(granularityMinutes));
+    }
+}
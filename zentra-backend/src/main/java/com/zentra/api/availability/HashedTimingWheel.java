@@ -0,0 +1,92 @@
+package com.zentra.api.availability;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+// Hashed timing wheel: O(1) schedule and cancel, expiry processed one bucket
+// per tick by whoever calls advance(). Deadlines further out than one rotation
+// are kept in their bucket with a remaining-rounds counter.
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final List<List<Timeout<T>>> buckets;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    // Thread-safe; the timeout is placed in its bucket on the next advance()
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(item, deadlineMillis);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    // Expire everything due up to nowMillis; must not be called concurrently
+    public synchronized void advance(long nowMillis, Consumer<T> onExpired) {
+        long targetTick = Math.max(0, (nowMillis - startMillis) / tickMillis);
+        while (currentTick <= targetTick) {
+            transferPending();
+            List<Timeout<T>> bucket = buckets.get((int) (currentTick & mask));
+            List<Timeout<T>> survivors = new ArrayList<>(bucket.size());
+            for (Timeout<T> timeout : bucket) {
+                if (timeout.cancelled) {
+                    continue;
+                }
+                if (timeout.remainingRounds <= 0) {
+                    onExpired.accept(timeout.item);
+                } else {
+                    timeout.remainingRounds--;
+                    survivors.add(timeout);
+                }
+            }
+            bucket.clear();
+            bucket.addAll(survivors);
+            currentTick++;
+        }
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long deadlineTick = Math.max(currentTick, (timeout.deadlineMillis - startMillis + tickMillis - 1) / tickMillis);
+            timeout.remainingRounds = (deadlineTick - currentTick) / buckets.size();
+            buckets.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadlineMillis;
+        private volatile boolean cancelled;
+        private long remainingRounds;
+
+        private Timeout(T item, long deadlineMillis) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.zentra.api.availability;
+
+import com.zentra.api.model.Appointment;
+import com.zentra.api.model.BusinessProfile;
+import com.zentra.api.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// In-memory schedule per (business, day), built lazily from the database and
+// kept current by the appointment service. Days are softly referenced so the
+// GC can drop cold days under memory pressure; they are rebuilt on next access.
+@Component
+public class OccupancyIndex {
+
+    private final AppointmentRepository appointmentRepository;
+    private final int granularityMinutes;
+    private final ConcurrentHashMap<DayKey, DayRef> days = new ConcurrentHashMap<>();
+    private final ReferenceQueue<DaySchedule> staleRefs = new ReferenceQueue<>();
+    private final ConcurrentHashMap<Long, AtomicLong> businessVersions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OccupancyIndex(
+            AppointmentRepository appointmentRepository,
+            @Value("${zentra.availability.granularity-minutes:1}") int granularityMinutes) {
+        this.appointmentRepository = appointmentRepository;
+        this.granularityMinutes = granularityMinutes;
+    }
+
+    public DaySchedule getDay(BusinessProfile business, LocalDate date) {
+        expungeStaleEntries();
+        DayKey key = new DayKey(business.getId(), date);
+        DayRef ref = days.get(key);
+        DaySchedule cached = ref != null ? ref.get() : null;
+        if (cached != null) {
+            return cached;
+        }
+
+        // The query runs outside the map so it never holds up other keys; the
+        // day is only published if no booking for this business committed meanwhile
+        long version = versionOf(business.getId()).get();
+        return publishIfUnchanged(key, load(business, date), version);
+    }
+
+    // Read a day straight from the database, bypassing the cache
+    public DaySchedule loadDay(BusinessProfile business, LocalDate date) {
+        return load(business, date);
+    }
+
+    // Read several days straight from the database with a single query, bypassing the cache
+    public Map<LocalDate, DaySchedule> loadDays(BusinessProfile business, Collection<LocalDate> dates) {
+        Map<LocalDate, DaySchedule> loaded = new HashMap<>();
+        for (LocalDate date : dates) {
+            loaded.put(date, new DaySchedule(granularityMinutes));
+        }
+        for (BookedInterval booked : appointmentRepository.findBookedIntervalsOnDates(business.getId(), dates)) {
+            occupy(loaded.get(booked.date()), booked);
+        }
+        return loaded;
+    }
+
+    // Schedules for every day in [startDate, endDate]; days that are not cached
+    // are loaded together with a single range query
+    public Map<LocalDate, DaySchedule> getDays(BusinessProfile business, LocalDate startDate, LocalDate endDate) {
+        expungeStaleEntries();
+        Map<LocalDate, DaySchedule> result = new HashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            DayRef ref = days.get(new DayKey(business.getId(), date));
+            DaySchedule cached = ref != null ? ref.get() : null;
+            if (cached != null) {
+                result.put(date, cached);
+            } else {
+                if (firstMissing == null) {
+                    firstMissing = date;
+                }
+                lastMissing = date;
+            }
+        }
+        if (firstMissing == null) {
+            return result;
+        }
+
+        long version = versionOf(business.getId()).get();
+        Map<LocalDate, DaySchedule> loaded = new HashMap<>();
+        for (LocalDate date = firstMissing; !date.isAfter(lastMissing); date = date.plusDays(1)) {
+            if (!result.containsKey(date)) {
+                loaded.put(date, new DaySchedule(granularityMinutes));
+            }
+        }
+        for (BookedInterval booked : appointmentRepository.findBookedIntervals(
+                business.getId(), firstMissing, lastMissing)) {
+            DaySchedule day = loaded.get(booked.date());
+            if (day != null) {
+                occupy(day, booked);
+            }
+        }
+
+        for (Map.Entry<LocalDate, DaySchedule> entry : loaded.entrySet()) {
+            result.put(entry.getKey(),
+                    publishIfUnchanged(new DayKey(business.getId(), entry.getKey()), entry.getValue(), version));
+        }
+        return result;
+    }
+
+    // Record a booked (or re-activated) appointment once the transaction commits
+    public void recordBooked(Appointment appointment) {
+        DayKey key = new DayKey(appointment.getBusiness().getId(), appointment.getDate());
+        Long appointmentId = appointment.getId();
+        Long staffId = staffIdOf(appointment);
+        LocalTime startTime = appointment.getStartTime();
+        LocalTime endTime = appointment.getEndTime();
+        afterCommit(() -> update(key, day -> day.occupy(appointmentId, staffId, startTime, endTime)));
+    }
+
+    // Record that an appointment no longer occupies its slot once the transaction commits
+    public void recordReleased(Long businessId, LocalDate date, Long appointmentId) {
+        DayKey key = new DayKey(businessId, date);
+        afterCommit(() -> update(key, day -> day.release(appointmentId)));
+    }
+
+    // Past days are never queried for availability again
+    @Scheduled(cron = "${zentra.availability.eviction-cron:0 0 3 * * *}")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(key -> key.date().isBefore(today));
+        expungeStaleEntries();
+    }
+
+    private DaySchedule load(BusinessProfile business, LocalDate date) {
+        DaySchedule day = new DaySchedule(granularityMinutes);
+        for (BookedInterval booked : appointmentRepository.findBookedIntervals(business.getId(), date, date)) {
+            occupy(day, booked);
+        }
+        return day;
+    }
+
+    private static void occupy(DaySchedule day, BookedInterval booked) {
+        day.occupy(booked.appointmentId(), booked.staffId(), booked.startTime(), booked.endTime());
+    }
+
+    // Cache a day loaded when the business was at the given version, unless a
+    // booking has committed since; such a day may miss it, so it is served once
+    // and reloaded later. The version is checked inside compute(): update()
+    // bumps it before locking the key, so a commit either sees the published
+    // day or is seen here.
+    private DaySchedule publishIfUnchanged(DayKey key, DaySchedule day, long version) {
+        DaySchedule[] current = new DaySchedule[1];
+        days.compute(key, (k, existing) -> {
+            DaySchedule cached = existing != null ? existing.get() : null;
+            if (cached == null) {
+                if (versionOf(k.businessId()).get() != version) {
+                    current[0] = day;
+                    return existing;
+                }
+                cached = day;
+                existing = new DayRef(k, day, staleRefs);
+            }
+            current[0] = cached;
+            return existing;
+        });
+        return current[0];
+    }
+
+    private void update(DayKey key, Consumer<DaySchedule> change) {
+        versionOf(key.businessId()).incrementAndGet();
+        // Days that are not cached are left alone; they load fresh on next access
+        days.computeIfPresent(key, (k, ref) -> {
+            DaySchedule day = ref.get();
+            if (day == null) {
+                return null;
+            }
+            change.accept(day);
+            return ref;
+        });
+    }
+
+    private static Long staffIdOf(Appointment appointment) {
+        return appointment.getStaff() != null ? appointment.getStaff().getId() : null;
+    }
+
+    private AtomicLong versionOf(Long businessId) {
+        return businessVersions.computeIfAbsent(businessId, id -> new AtomicLong());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void expungeStaleEntries() {
+        Reference<? extends DaySchedule> stale;
+        while ((stale = staleRefs.poll()) != null) {
+            DayRef ref = (DayRef) stale;
+            days.remove(ref.key, ref);
+        }
+    }
+
+    private record DayKey(Long businessId, LocalDate date) {
+    }
+
+    private static final class DayRef extends SoftReference<DaySchedule> {
+        private final DayKey key;
+
+        private DayRef(DayKey key, DaySchedule day, ReferenceQueue<DaySchedule> queue) {
+            super(day, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.zentra.api.availability;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record SlotHold(
+        String id,
+        Long businessId,
+        Long serviceId,
+        Long customerId,
+        Long staffId,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime,
+        int durationMinutes,
+        Instant expiresAt) {
+
+    public boolean overlaps(LocalTime otherStart, LocalTime otherEnd) {
+        return otherStart.isBefore(endTime) && otherEnd.isAfter(startTime);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
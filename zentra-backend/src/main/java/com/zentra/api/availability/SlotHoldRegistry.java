@@ -0,0 +1,110 @@
+package com.zentra.api.availability;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// In-memory temporary holds on slots. Holds are indexed per business day for
+// the availability computation and expire through a hashed timing wheel, so
+// there is no database row or scheduled task per hold.
+@Component
+public class SlotHoldRegistry {
+
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Entry> holds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<DayKey, List<SlotHold>> holdsByDay = new ConcurrentHashMap<>();
+    private final HashedTimingWheel<String> expiryWheel;
+
+    @Autowired
+    public SlotHoldRegistry(@Value("${zentra.holds.tick-millis:1000}") long tickMillis) {
+        this.clock = Clock.systemUTC();
+        this.expiryWheel = new HashedTimingWheel<>(tickMillis, 512, clock.millis());
+    }
+
+    // Atomically place a hold for a business day. The allocator sees the day's
+    // live holds and returns the new hold, or throws if the slot is taken.
+    public SlotHold place(Long businessId, LocalDate date, Function<List<SlotHold>, SlotHold> allocator) {
+        SlotHold[] placed = new SlotHold[1];
+        holdsByDay.compute(new DayKey(businessId, date), (key, current) -> {
+            List<SlotHold> live = live(current);
+            SlotHold hold = allocator.apply(live);
+            List<SlotHold> updated = new ArrayList<>(live);
+            updated.add(hold);
+            placed[0] = hold;
+            return List.copyOf(updated);
+        });
+        SlotHold hold = placed[0];
+        holds.put(hold.id(), new Entry(hold, expiryWheel.schedule(hold.id(), hold.expiresAt().toEpochMilli())));
+        return hold;
+    }
+
+    public List<SlotHold> holdsFor(Long businessId, LocalDate date) {
+        return live(holdsByDay.get(new DayKey(businessId, date)));
+    }
+
+    public Optional<SlotHold> get(String holdId) {
+        Entry entry = holds.get(holdId);
+        if (entry == null || entry.hold().isExpired(clock.instant())) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.hold());
+    }
+
+    public boolean release(String holdId) {
+        Entry entry = holds.remove(holdId);
+        if (entry == null) {
+            return false;
+        }
+        entry.timeout().cancel();
+        removeFromDay(entry.hold());
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${zentra.holds.tick-millis:1000}")
+    public void expireHolds() {
+        expiryWheel.advance(clock.millis(), this::expire);
+    }
+
+    private void expire(String holdId) {
+        Entry entry = holds.remove(holdId);
+        if (entry != null) {
+            removeFromDay(entry.hold());
+        }
+    }
+
+    private void removeFromDay(SlotHold hold) {
+        holdsByDay.computeIfPresent(new DayKey(hold.businessId(), hold.date()), (key, current) -> {
+            List<SlotHold> remaining = new ArrayList<>(current);
+            remaining.removeIf(candidate -> candidate.id().equals(hold.id()));
+            return remaining.isEmpty() ? null : List.copyOf(remaining);
+        });
+    }
+
+    // Holds past their deadline stop counting even before the wheel reaches them
+    private List<SlotHold> live(List<SlotHold> dayHolds) {
+        if (dayHolds == null) {
+            return List.of();
+        }
+        Instant now = clock.instant();
+        if (dayHolds.stream().noneMatch(hold -> hold.isExpired(now))) {
+            return dayHolds;
+        }
+        return dayHolds.stream().filter(hold -> !hold.isExpired(now)).toList();
+    }
+
+    private record DayKey(Long businessId, LocalDate date) {
+    }
+
+    private record Entry(SlotHold hold, HashedTimingWheel.Timeout<String> timeout) {
+    }
+}
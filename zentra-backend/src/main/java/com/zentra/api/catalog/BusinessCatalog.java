@@ -0,0 +1,178 @@
+package com.zentra.api.catalog;
+
+import com.zentra.api.dto.BusinessListingDto;
+import com.zentra.api.dto.ServiceListingDto;
+import com.zentra.api.event.CatalogChangedEvent;
+import com.zentra.api.event.ZipCentroidsImportedEvent;
+import com.zentra.api.repository.BusinessDailyStatsRepository;
+import com.zentra.api.repository.BusinessHoursRepository;
+import com.zentra.api.repository.BusinessProfileRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// The public business listings, served from an immutable snapshot so readers
+// never block or query the database. The snapshot is rebuilt with one query
+// on a background thread after business profiles or services change and
+// swapped in whole; changes that arrive while a rebuild is queued are picked
+// up by that rebuild.
+@Component
+public class BusinessCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessCatalog.class);
+
+    // Autocomplete ranks names by their bookings over this many days
+    private static final int POPULARITY_DAYS = 90;
+
+    private final BusinessProfileRepository businessProfileRepository;
+    private final BusinessDailyStatsRepository statsRepository;
+    private final BusinessHoursRepository businessHoursRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService refresher =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("business-catalog-"));
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+
+    @Autowired
+    public BusinessCatalog(BusinessProfileRepository businessProfileRepository,
+                           BusinessDailyStatsRepository statsRepository,
+                           BusinessHoursRepository businessHoursRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.businessProfileRepository = businessProfileRepository;
+        this.statsRepository = statsRepository;
+        this.businessHoursRepository = businessHoursRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    // Load the first snapshot before the application serves requests
+    @PostConstruct
+    public void load() {
+        snapshot = build();
+    }
+
+    // Runs after commit, or straight away when published outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        requestRefresh();
+    }
+
+    // Businesses without coordinates of their own move with their zip code's centroid
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onZipCentroidsImported(ZipCentroidsImportedEvent event) {
+        requestRefresh();
+    }
+
+    // Picks up changes made outside the services, such as direct database edits
+    @Scheduled(fixedDelayString = "${zentra.catalog.refresh-millis:300000}")
+    public void refreshPeriodically() {
+        requestRefresh();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void requestRefresh() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                // Cleared before reading, so a change committed during the rebuild queues another one
+                refreshQueued.set(false);
+                try {
+                    snapshot = build();
+                } catch (RuntimeException e) {
+                    logger.error("Could not rebuild the business catalog", e);
+                }
+            });
+        }
+    }
+
+    private CatalogSnapshot build() {
+        Map<Long, Long> bookingsByService = new HashMap<>();
+        Map<Long, List<OpeningHours>> hoursByBusiness = new HashMap<>();
+        List<CatalogRow> rows = readOnlyTransaction.execute(status -> {
+            statsRepository.sumBookingsByServiceSince(LocalDate.now().minusDays(POPULARITY_DAYS))
+                    .forEach(service -> bookingsByService.put(service.serviceId(), service.bookings()));
+            businessHoursRepository.findOpeningHours().forEach(hours ->
+                    hoursByBusiness.computeIfAbsent(hours.businessId(), id -> new ArrayList<>()).add(hours));
+            return businessProfileRepository.findCatalogRows();
+        });
+        List<BusinessListingDto> listings = new ArrayList<>();
+        SearchIndex.Builder searchIndex = new SearchIndex.Builder();
+        SuggestionIndex.Builder suggestionIndex = new SuggestionIndex.Builder();
+        GeoGrid.Builder geoGrid = new GeoGrid.Builder();
+        Map<Long, Long> bookingsByBusiness = new HashMap<>();
+        BusinessListingDto current = null;
+        for (CatalogRow row : rows) {
+            if (current == null || !current.getId().equals(row.businessId())) {
+                current = toListing(row);
+                listings.add(current);
+                searchIndex.nextListing();
+                searchIndex.add(row.businessName(), SearchIndex.NAME_WEIGHT);
+                searchIndex.add(row.description(), SearchIndex.DESCRIPTION_WEIGHT);
+                searchIndex.add(row.city(), SearchIndex.CITY_WEIGHT);
+                if (row.latitude() != null && row.longitude() != null) {
+                    geoGrid.add(listings.size() - 1, row.latitude(), row.longitude());
+                }
+            }
+            if (row.serviceId() != null) {
+                current.getServices().add(new ServiceListingDto(
+                        row.serviceId(), row.serviceName(), row.durationMinutes(), row.price().doubleValue()));
+                searchIndex.add(row.serviceName(), SearchIndex.SERVICE_WEIGHT);
+                long bookings = bookingsByService.getOrDefault(row.serviceId(), 0L);
+                suggestionIndex.addService(row.serviceName(), bookings);
+                bookingsByBusiness.merge(row.businessId(), bookings, Long::sum);
+            }
+        }
+        for (BusinessListingDto listing : listings) {
+            listing.setServices(List.copyOf(listing.getServices()));
+            suggestionIndex.addBusiness(listing.getId(), listing.getName(),
+                    bookingsByBusiness.getOrDefault(listing.getId(), 0L));
+        }
+        return new CatalogSnapshot(listings, searchIndex.build(), suggestionIndex.build(), geoGrid.build(),
+                hoursByBusiness);
+    }
+
+    private static BusinessListingDto toListing(CatalogRow row) {
+        BusinessListingDto dto = new BusinessListingDto();
+        dto.setId(row.businessId());
+        dto.setName(row.businessName());
+        dto.setCategory(row.category());
+
+        // Set a default rating
+        // In a real application, you would calculate this from customer reviews
+        dto.setRating(4.5);
+
+        // Set a default image
+        // In a real application, you would store and retrieve actual business images
+        dto.setImage(row.logoUrl() != null ?
+                row.logoUrl() :
+                "https://via.placeholder.com/500?text=" + row.businessName());
+
+        dto.setServices(new ArrayList<>());
+        return dto;
+    }
+}
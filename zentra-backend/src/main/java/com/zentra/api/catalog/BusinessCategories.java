@@ -0,0 +1,29 @@
+package com.zentra.api.catalog;
+
+// Derives a category from keywords in a business's name and description, for
+// businesses created without one. V16 backfilled existing businesses with the
+// same rules.
+public final class BusinessCategories {
+
+    private BusinessCategories() {
+    }
+
+    public static String determine(String businessName, String businessDescription) {
+        String name = businessName.toLowerCase();
+        String description = businessDescription != null ? businessDescription.toLowerCase() : "";
+        
+        if (name.contains("spa") || name.contains("massage") || name.contains("wellness") ||
+            description.contains("spa") || description.contains("massage") || description.contains("wellness")) {
+            return "Wellness";
+        } else if (name.contains("salon") || name.contains("hair") || name.contains("beauty") || name.contains("nail") ||
+                 description.contains("salon") || description.contains("hair") || description.contains("beauty") || 
+                 description.contains("nail")) {
+            return "Beauty";
+        } else if (name.contains("gym") || name.contains("fitness") || name.contains("training") ||
+                 description.contains("gym") || description.contains("fitness") || description.contains("training")) {
+            return "Fitness";
+        } else {
+            return "Other";
+        }
+    }
+}
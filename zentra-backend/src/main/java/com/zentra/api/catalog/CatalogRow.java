@@ -0,0 +1,11 @@
+package com.zentra.api.catalog;
+
+import java.math.BigDecimal;
+
+// An active business and one of its active services; the service columns are
+// null for a business without any, and the location is null for a business
+// that has not set one and whose zip code is unknown
+public record CatalogRow(Long businessId, String businessName, String category, String description,
+                         String city, Double latitude, Double longitude, String logoUrl,
+                         Long serviceId, String serviceName, Integer durationMinutes, BigDecimal price) {
+}
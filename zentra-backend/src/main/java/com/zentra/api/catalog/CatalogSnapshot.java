@@ -0,0 +1,100 @@
+package com.zentra.api.catalog;
+
+import com.zentra.api.dto.AutocompleteSuggestionDto;
+import com.zentra.api.dto.BusinessListingDto;
+import com.zentra.api.dto.NearbyBusinessListingDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+// Immutable view of every active business listing at one point in time. The
+// listings are shared by every reader of the snapshot and must not be
+// modified.
+public final class CatalogSnapshot {
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(List.of(), SearchIndex.EMPTY, SuggestionIndex.EMPTY,
+            GeoGrid.EMPTY, Map.of());
+
+    private final List<BusinessListingDto> listings;
+    private final Map<String, List<BusinessListingDto>> listingsByCategory;
+    private final SearchIndex searchIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final GeoGrid geoGrid;
+    private final Map<Long, List<OpeningHours>> hoursByBusiness;
+
+    // The search index and geo grid refer to listings by their position in the list
+    CatalogSnapshot(List<BusinessListingDto> listings, SearchIndex searchIndex, SuggestionIndex suggestionIndex,
+                    GeoGrid geoGrid, Map<Long, List<OpeningHours>> hoursByBusiness) {
+        this.listings = List.copyOf(listings);
+        this.searchIndex = searchIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.geoGrid = geoGrid;
+        this.hoursByBusiness = Map.copyOf(hoursByBusiness);
+        this.listingsByCategory = listings.stream().collect(Collectors.groupingBy(
+                listing -> categoryKey(listing.getCategory()),
+                LinkedHashMap::new,
+                Collectors.collectingAndThen(Collectors.toList(), List::copyOf)));
+    }
+
+    // Every listing in business id order
+    public List<BusinessListingDto> listings() {
+        return listings;
+    }
+
+    // Listings of a category, matched ignoring case
+    public List<BusinessListingDto> listingsInCategory(String category) {
+        return listingsByCategory.getOrDefault(categoryKey(category), List.of());
+    }
+
+    // Listings matching every word of the query in their name, services,
+    // description or city, most relevant first
+    public List<BusinessListingDto> search(String query, int offset, int limit) {
+        int[] positions = searchIndex.search(query, offset, limit);
+        List<BusinessListingDto> matches = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            matches.add(listings.get(position));
+        }
+        return matches;
+    }
+
+    // Business and service names with a word starting with the prefix, most booked first
+    public List<AutocompleteSuggestionDto> suggest(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, limit);
+    }
+
+    // Listings within radiusKm of the location, nearest first, optionally only
+    // those of one category and those open at a given time
+    public List<NearbyBusinessListingDto> nearby(double latitude, double longitude, double radiusKm,
+                                                 String category, LocalDateTime openAt, int limit) {
+        String wantedCategory = category != null ? categoryKey(category) : null;
+        IntPredicate filter = position -> {
+            BusinessListingDto listing = listings.get(position);
+            return (wantedCategory == null || categoryKey(listing.getCategory()).equals(wantedCategory))
+                    && (openAt == null || isOpenAt(listing.getId(), openAt));
+        };
+        List<NearbyBusinessListingDto> nearby = new ArrayList<>();
+        for (GeoGrid.Match match : geoGrid.nearby(latitude, longitude, radiusKm, filter, limit)) {
+            nearby.add(new NearbyBusinessListingDto(listings.get(match.position()), match.distanceKm()));
+        }
+        return nearby;
+    }
+
+    private boolean isOpenAt(Long businessId, LocalDateTime time) {
+        for (OpeningHours hours : hoursByBusiness.getOrDefault(businessId, List.of())) {
+            if (hours.dayOfWeek() == time.getDayOfWeek() && hours.isOpenAt(time.toLocalTime())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String categoryKey(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,120 @@
+package com.zentra.api.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+// Uniform grid over the located listings of a catalog snapshot. Each cell is
+// CELL_DEGREES of latitude by CELL_DEGREES of longitude and holds the
+// positions of the listings inside it, so a radius query only measures the
+// listings in the cells overlapping the circle's bounding box.
+final class GeoGrid {
+
+    static final GeoGrid EMPTY = new Builder().build();
+
+    private static final double CELL_DEGREES = 0.1;
+    private static final int LATITUDE_CELLS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int LONGITUDE_CELLS = (int) Math.round(360 / CELL_DEGREES);
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.toRadians(EARTH_RADIUS_KM);
+
+    private final Map<Integer, int[]> positionsByCell;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private GeoGrid(Map<Integer, int[]> positionsByCell, double[] latitudes, double[] longitudes) {
+        this.positionsByCell = positionsByCell;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    // Listings within radiusKm of the point that pass the filter, nearest
+    // first; equal distances keep listing order
+    List<Match> nearby(double latitude, double longitude, double radiusKm, IntPredicate filter, int limit) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        int firstRow = latitudeCell(Math.max(-90, latitude - latitudeDelta));
+        int lastRow = latitudeCell(Math.min(90, latitude + latitudeDelta));
+        // A degree of longitude shrinks towards the poles, so the box widens;
+        // near a pole it takes every column
+        double widest = Math.max(Math.abs(latitude - latitudeDelta), Math.abs(latitude + latitudeDelta));
+        double longitudeDelta = widest >= 90 ? 180 : latitudeDelta / Math.cos(Math.toRadians(widest));
+        int firstColumn = longitudeCell(longitude - longitudeDelta);
+        int lastColumn = longitudeCell(longitude + longitudeDelta);
+        if (longitudeDelta >= 180 || lastColumn - firstColumn + 1 >= LONGITUDE_CELLS) {
+            firstColumn = 0;
+            lastColumn = LONGITUDE_CELLS - 1;
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                // Columns past the antimeridian wrap around
+                int[] positions = positionsByCell.get(row * LONGITUDE_CELLS + Math.floorMod(column, LONGITUDE_CELLS));
+                if (positions == null) {
+                    continue;
+                }
+                for (int position : positions) {
+                    double distanceKm = distanceKm(latitude, longitude, latitudes[position], longitudes[position]);
+                    if (distanceKm <= radiusKm && filter.test(position)) {
+                        matches.add(new Match(position, distanceKm));
+                    }
+                }
+            }
+        }
+        matches.sort((a, b) -> a.distanceKm() != b.distanceKm()
+                ? Double.compare(a.distanceKm(), b.distanceKm())
+                : Integer.compare(a.position(), b.position()));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    // Columns are not taken modulo here, so a box can run past the antimeridian
+    private static int longitudeCell(double longitude) {
+        return (int) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+
+    private static int latitudeCell(double latitude) {
+        return Math.min(LATITUDE_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    // Haversine great-circle distance
+    private static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double latitudeSine = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+        double longitudeSine = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double a = latitudeSine * latitudeSine + Math.cos(Math.toRadians(latitude1))
+                * Math.cos(Math.toRadians(latitude2)) * longitudeSine * longitudeSine;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    record Match(int position, double distanceKm) {
+    }
+
+    static final class Builder {
+
+        private final Map<Integer, List<Integer>> positionsByCell = new HashMap<>();
+        private double[] latitudes = new double[16];
+        private double[] longitudes = new double[16];
+
+        // Listings without a location are left out of the grid
+        void add(int position, double latitude, double longitude) {
+            int cell = latitudeCell(latitude) * LONGITUDE_CELLS + Math.floorMod(longitudeCell(longitude), LONGITUDE_CELLS);
+            positionsByCell.computeIfAbsent(cell, c -> new ArrayList<>()).add(position);
+            if (position >= latitudes.length) {
+                int length = Math.max(position + 1, latitudes.length * 2);
+                latitudes = Arrays.copyOf(latitudes, length);
+                longitudes = Arrays.copyOf(longitudes, length);
+            }
+            latitudes[position] = latitude;
+            longitudes[position] = longitude;
+        }
+
+        GeoGrid build() {
+            Map<Integer, int[]> cells = new HashMap<>(positionsByCell.size() * 4 / 3 + 1);
+            positionsByCell.forEach((cell, positions) ->
+                    cells.put(cell, positions.stream().mapToInt(Integer::intValue).toArray()));
+            return new GeoGrid(cells, latitudes, longitudes);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.zentra.api.catalog;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+// The hours an active business is open on one day of the week
+public record OpeningHours(Long businessId, DayOfWeek dayOfWeek, LocalTime openTime, LocalTime closeTime) {
+
+    boolean isOpenAt(LocalTime time) {
+        return !time.isBefore(openTime) && time.isBefore(closeTime);
+    }
+}
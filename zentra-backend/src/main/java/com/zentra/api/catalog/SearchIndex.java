@@ -0,0 +1,229 @@
+package com.zentra.api.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Inverted index over the listings of a catalog snapshot. Each term maps to
+// the positions of the listings containing it, in ascending order, with a
+// score for how strongly the listing matches it: a term in the business name
+// counts more than one in a service name, which counts more than one in the
+// description or city. Queries match listings containing every query term and
+// rank them by the sum of their term scores. The last query term also
+// matches every term it is a prefix of, so results follow the user's typing.
+final class SearchIndex {
+
+    static final int NAME_WEIGHT = 8;
+    static final int SERVICE_WEIGHT = 4;
+    static final int DESCRIPTION_WEIGHT = 1;
+    static final int CITY_WEIGHT = 1;
+
+    static final SearchIndex EMPTY = new Builder().build();
+
+    private final Map<String, Postings> postingsByTerm;
+    // Every indexed term in ascending order, for prefix lookups
+    private final String[] sortedTerms;
+    private final int listingCount;
+
+    private SearchIndex(Map<String, Postings> postingsByTerm, int listingCount) {
+        this.postingsByTerm = postingsByTerm;
+        this.sortedTerms = postingsByTerm.keySet().toArray(String[]::new);
+        Arrays.sort(this.sortedTerms);
+        this.listingCount = listingCount;
+    }
+
+    // Positions of the best matches after skipping offset of them, best first;
+    // equal scores keep listing order
+    int[] search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(SearchTerms.of(query)));
+        List<Postings> lists = new ArrayList<>();
+        for (int t = 0; t < terms.size(); t++) {
+            Postings postings = t == terms.size() - 1
+                    ? prefixPostings(terms.get(t))
+                    : postingsByTerm.get(terms.get(t));
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        if (lists.isEmpty()) {
+            return new int[0];
+        }
+        // Walk the rarest term's list and look the others up in it
+        lists.sort(Comparator.comparingInt(postings -> postings.positions.length));
+        Postings rarest = lists.get(0);
+        int wanted = offset + limit;
+        // Ranks pack the score above the inverted position, so a larger rank is a better match
+        PriorityQueue<Long> best = new PriorityQueue<>(Math.min(wanted, rarest.positions.length) + 1);
+        int[] cursors = new int[lists.size()];
+        candidates:
+        for (int i = 0; i < rarest.positions.length; i++) {
+            int position = rarest.positions[i];
+            int score = rarest.scores[i];
+            for (int j = 1; j < lists.size(); j++) {
+                Postings other = lists.get(j);
+                int found = Arrays.binarySearch(other.positions, cursors[j], other.positions.length, position);
+                if (found < 0) {
+                    cursors[j] = -found - 1;
+                    continue candidates;
+                }
+                cursors[j] = found + 1;
+                score += other.scores[found];
+            }
+            long rank = ((long) score << 32) | (Integer.MAX_VALUE - position);
+            if (best.size() < wanted) {
+                best.add(rank);
+            } else if (rank > best.peek()) {
+                best.poll();
+                best.add(rank);
+            }
+        }
+
+        // The queue gives the worst match first, and the best offset matches are left in it
+        int[] page = new int[Math.max(0, best.size() - offset)];
+        for (int i = page.length - 1; i >= 0; i--) {
+            page[i] = Integer.MAX_VALUE - (int) (best.poll() & 0xFFFFFFFFL);
+        }
+        return page;
+    }
+
+    // Listings containing any term that starts with the prefix, scored by the
+    // best of those terms, or null when no term does
+    private Postings prefixPostings(String prefix) {
+        int first = Arrays.binarySearch(sortedTerms, prefix);
+        if (first < 0) {
+            first = -first - 1;
+        }
+        int end = first;
+        int total = 0;
+        while (end < sortedTerms.length && sortedTerms[end].startsWith(prefix)) {
+            total += postingsByTerm.get(sortedTerms[end]).positions.length;
+            end++;
+        }
+        if (end == first) {
+            return null;
+        }
+        if (end == first + 1) {
+            return postingsByTerm.get(sortedTerms[first]);
+        }
+        return total < listingCount / 8 ? mergeSparse(first, end, total) : mergeDense(first, end);
+    }
+
+    // Few postings: pack each as position and score, sort and keep the best score per position
+    private Postings mergeSparse(int first, int end, int total) {
+        long[] packed = new long[total];
+        int size = 0;
+        for (int t = first; t < end; t++) {
+            Postings postings = postingsByTerm.get(sortedTerms[t]);
+            for (int i = 0; i < postings.positions.length; i++) {
+                packed[size++] = ((long) postings.positions[i] << 32) | postings.scores[i];
+            }
+        }
+        Arrays.sort(packed);
+        int[] positions = new int[total];
+        int[] scores = new int[total];
+        int merged = -1;
+        for (long entry : packed) {
+            int position = (int) (entry >>> 32);
+            int score = (int) entry;
+            if (merged >= 0 && positions[merged] == position) {
+                scores[merged] = score;
+            } else {
+                merged++;
+                positions[merged] = position;
+                scores[merged] = score;
+            }
+        }
+        return new Postings(Arrays.copyOf(positions, merged + 1), Arrays.copyOf(scores, merged + 1));
+    }
+
+    // Many postings: keep the best score per listing in an array over all listings
+    private Postings mergeDense(int first, int end) {
+        int[] best = new int[listingCount];
+        int matched = 0;
+        for (int t = first; t < end; t++) {
+            Postings postings = postingsByTerm.get(sortedTerms[t]);
+            for (int i = 0; i < postings.positions.length; i++) {
+                int position = postings.positions[i];
+                if (best[position] == 0) {
+                    matched++;
+                }
+                best[position] = Math.max(best[position], postings.scores[i]);
+            }
+        }
+        int[] positions = new int[matched];
+        int[] scores = new int[matched];
+        int size = 0;
+        for (int position = 0; position < best.length && size < matched; position++) {
+            if (best[position] != 0) {
+                positions[size] = position;
+                scores[size] = best[position];
+                size++;
+            }
+        }
+        return new Postings(positions, scores);
+    }
+
+    private record Postings(int[] positions, int[] scores) {
+    }
+
+    // Listings must be added in position order
+    static final class Builder {
+
+        private final Map<String, GrowingPostings> postingsByTerm = new HashMap<>();
+        private final Map<String, Integer> listingScores = new HashMap<>();
+        private int position = -1;
+
+        // Start the listing at the next position
+        void nextListing() {
+            flush();
+            position++;
+        }
+
+        // A term scores the field's weight once however often it appears in the field
+        void add(String text, int weight) {
+            for (String term : new HashSet<>(SearchTerms.of(text))) {
+                listingScores.merge(term, weight, Integer::sum);
+            }
+        }
+
+        SearchIndex build() {
+            flush();
+            Map<String, Postings> postings = new HashMap<>(postingsByTerm.size() * 4 / 3 + 1);
+            postingsByTerm.forEach((term, growing) -> postings.put(term, growing.toPostings()));
+            return new SearchIndex(postings, position + 1);
+        }
+
+        private void flush() {
+            listingScores.forEach((term, score) ->
+                    postingsByTerm.computeIfAbsent(term, t -> new GrowingPostings()).add(position, score));
+            listingScores.clear();
+        }
+    }
+
+    private static final class GrowingPostings {
+        private int[] positions = new int[4];
+        private int[] scores = new int[4];
+        private int size;
+
+        private void add(int position, int score) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            positions[size] = position;
+            scores[size] = score;
+            size++;
+        }
+
+        private Postings toPostings() {
+            return new Postings(Arrays.copyOf(positions, size), Arrays.copyOf(scores, size));
+        }
+    }
+}
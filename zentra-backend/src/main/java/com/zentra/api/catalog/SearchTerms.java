@@ -0,0 +1,38 @@
+package com.zentra.api.catalog;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Splits text into search terms: lower case, accents removed and split on
+// anything that is not a letter or digit, so "Güzellik Salonu" and
+// "guzellik salonu" give the same terms
+final class SearchTerms {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private SearchTerms() {
+    }
+
+    static List<String> of(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : SEPARATORS.split(fold(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        // The dotless i has no decomposition, so fold it by hand
+        return MARKS.matcher(decomposed).replaceAll("").replace('ı', 'i').toLowerCase(Locale.ROOT);
+    }
+}
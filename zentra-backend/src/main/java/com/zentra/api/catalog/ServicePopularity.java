@@ -0,0 +1,5 @@
+package com.zentra.api.catalog;
+
+// Bookings of one service over the popularity window
+public record ServicePopularity(Long serviceId, Long bookings) {
+}
@@ -0,0 +1,174 @@
+package com.zentra.api.catalog;
+
+import com.zentra.api.dto.AutocompleteSuggestionDto;
+import com.zentra.api.dto.SuggestionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Autocomplete over business and service names. Every word start of every
+// folded name is a key in one sorted array, so the keys starting with a
+// prefix are a contiguous range found by binary search, and typing "salon"
+// suggests "Hair Salon". Suggestions are ranked by how many bookings they had
+// in the popularity window; services offered by several businesses under the
+// same name are one suggestion with their bookings added up. Short prefixes
+// match too many keys to rank on every keystroke, so the best suggestions of
+// every prefix matching more than RANKED_PREFIX_KEYS keys are ranked once,
+// when the index is built.
+final class SuggestionIndex {
+
+    static final SuggestionIndex EMPTY = new Builder().build();
+
+    private static final int RANKED_PREFIX_KEYS = 64;
+    private static final int RANKED_SUGGESTIONS = 20;
+
+    private final Suggestion[] suggestions;
+    private final String[] keys;
+    private final int[] keySuggestions;
+    private final Map<String, int[]> rankedByPrefix = new HashMap<>();
+
+    private SuggestionIndex(Suggestion[] suggestions, String[] keys, int[] keySuggestions) {
+        this.suggestions = suggestions;
+        this.keys = keys;
+        this.keySuggestions = keySuggestions;
+        rankPrefixes(0, keys.length, 0);
+    }
+
+    // The most popular suggestions with a word starting with the prefix;
+    // equal popularity is in alphabetical order
+    List<AutocompleteSuggestionDto> suggest(String prefix, int limit) {
+        String key = fold(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int[] ranked = limit <= RANKED_SUGGESTIONS ? rankedByPrefix.get(key) : null;
+        if (ranked == null) {
+            int from = firstKeyFrom(key);
+            int to = from;
+            while (to < keys.length && keys[to].startsWith(key)) {
+                to++;
+            }
+            ranked = rank(from, to, limit);
+        }
+
+        List<AutocompleteSuggestionDto> dtos = new ArrayList<>(Math.min(limit, ranked.length));
+        for (int i = 0; i < ranked.length && i < limit; i++) {
+            Suggestion suggestion = suggestions[ranked[i]];
+            dtos.add(new AutocompleteSuggestionDto(suggestion.text(), suggestion.type(), suggestion.businessId()));
+        }
+        return dtos;
+    }
+
+    private int firstKeyFrom(String key) {
+        int found = Arrays.binarySearch(keys, key);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    // The keys from..to share their first length characters. Keys of exactly
+    // that length sort first, then the rest group by their next character.
+    private void rankPrefixes(int from, int to, int length) {
+        int start = from;
+        while (start < to && keys[start].length() == length) {
+            start++;
+        }
+        while (start < to) {
+            char next = keys[start].charAt(length);
+            int end = start + 1;
+            while (end < to && keys[end].charAt(length) == next) {
+                end++;
+            }
+            if (end - start > RANKED_PREFIX_KEYS) {
+                rankedByPrefix.put(keys[start].substring(0, length + 1), rank(start, end, RANKED_SUGGESTIONS));
+                rankPrefixes(start, end, length + 1);
+            }
+            start = end;
+        }
+    }
+
+    // Suggestions of the keys from..to, best first
+    private int[] rank(int from, int to, int limit) {
+        // Worst suggestion at the head, so it is the one dropped
+        Comparator<Integer> ranking = Comparator.<Integer>comparingLong(i -> suggestions[i].popularity())
+                .thenComparing(Comparator.<Integer>naturalOrder().reversed());
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, ranking);
+        for (int i = from; i < to; i++) {
+            Integer suggestion = keySuggestions[i];
+            if ((best.size() == limit && ranking.compare(suggestion, best.peek()) <= 0) || best.contains(suggestion)) {
+                continue;
+            }
+            best.add(suggestion);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        int[] ranked = new int[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll();
+        }
+        return ranked;
+    }
+
+    private static String fold(String text) {
+        return String.join(" ", SearchTerms.of(text));
+    }
+
+    private record Suggestion(String folded, String text, SuggestionType type, Long businessId, long popularity) {
+    }
+
+    static final class Builder {
+
+        private final List<Suggestion> businesses = new ArrayList<>();
+        private final Map<String, Suggestion> servicesByName = new HashMap<>();
+
+        void addBusiness(Long businessId, String name, long popularity) {
+            String folded = fold(name);
+            if (!folded.isEmpty()) {
+                businesses.add(new Suggestion(folded, name, SuggestionType.BUSINESS, businessId, popularity));
+            }
+        }
+
+        // The first spelling of a service name is the one suggested
+        void addService(String name, long popularity) {
+            String folded = fold(name);
+            if (!folded.isEmpty()) {
+                servicesByName.merge(folded, new Suggestion(folded, name, SuggestionType.SERVICE, null, popularity),
+                        (first, next) -> new Suggestion(folded, first.text(), SuggestionType.SERVICE, null,
+                                first.popularity() + next.popularity()));
+            }
+        }
+
+        SuggestionIndex build() {
+            List<Suggestion> all = new ArrayList<>(businesses);
+            all.addAll(servicesByName.values());
+            all.sort(Comparator.comparing(Suggestion::folded).thenComparing(Suggestion::type));
+
+            List<String> keys = new ArrayList<>();
+            List<Integer> keySuggestions = new ArrayList<>();
+            for (int i = 0; i < all.size(); i++) {
+                String folded = all.get(i).folded();
+                int start = 0;
+                do {
+                    keys.add(folded.substring(start));
+                    keySuggestions.add(i);
+                    start = folded.indexOf(' ', start) + 1;
+                } while (start > 0);
+            }
+            Integer[] order = new Integer[keys.size()];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, Comparator.comparing(keys::get));
+
+            String[] sortedKeys = new String[order.length];
+            int[] sortedSuggestions = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedKeys[i] = keys.get(order[i]);
+                sortedSuggestions[i] = keySuggestions.get(order[i]);
+            }
+            return new SuggestionIndex(all.toArray(new Suggestion[0]), sortedKeys, sortedSuggestions);
+        }
+    }
+}
@@ -1,17 +1,28 @@
 package com.zentra.api.controller;
 
 import com.zentra.api.dto.AppointmentDto;
+import com.zentra.api.dto.AppointmentPageDto;
 import com.zentra.api.dto.CreateAppointmentRequest;
+import com.zentra.api.dto.ExportFormat;
+import com.zentra.api.dto.RecurringAppointmentRequest;
+import com.zentra.api.dto.SlotCapacityDto;
+import com.zentra.api.dto.SlotHoldDto;
+import com.zentra.api.dto.SlotHoldRequest;
 import com.zentra.api.model.AppointmentStatus;
+import com.zentra.api.service.AppointmentExportService;
 import com.zentra.api.service.AppointmentService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -22,19 +33,57 @@ import java.util.Map;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentExportService appointmentExportService;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService,
+                                 AppointmentExportService appointmentExportService) {
         this.appointmentService = appointmentService;
+        this.appointmentExportService = appointmentExportService;
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ROLE_CUSTOMER')")
-    public ResponseEntity<AppointmentDto> createAppointment(@Valid @RequestBody CreateAppointmentRequest request) {
-        AppointmentDto appointmentDto = appointmentService.createAppointment(request);
+    public ResponseEntity<AppointmentDto> createAppointment(
+            @Valid @RequestBody CreateAppointmentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        AppointmentDto appointmentDto = appointmentService.createAppointment(request, idempotencyKey);
         return new ResponseEntity<>(appointmentDto, HttpStatus.CREATED);
     }
 
+    @PostMapping("/recurring")
+    @PreAuthorize("hasRole('ROLE_CUSTOMER')")
+    public ResponseEntity<List<AppointmentDto>> createRecurringAppointments(
+            @Valid @RequestBody RecurringAppointmentRequest request) {
+        List<AppointmentDto> appointments = appointmentService.createRecurringAppointments(request);
+        return new ResponseEntity<>(appointments, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/holds")
+    @PreAuthorize("hasRole('ROLE_CUSTOMER')")
+    public ResponseEntity<SlotHoldDto> holdSlot(@Valid @RequestBody SlotHoldRequest request) {
+        SlotHoldDto slotHoldDto = appointmentService.holdSlot(request);
+        return new ResponseEntity<>(slotHoldDto, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/holds/{holdId}/confirm")
+    @PreAuthorize("hasRole('ROLE_CUSTOMER')")
+    public ResponseEntity<AppointmentDto> confirmHold(
+            @PathVariable String holdId,
+            @RequestParam(required = false) String notes) {
+        AppointmentDto appointmentDto = appointmentService.confirmHold(holdId, notes);
+        return new ResponseEntity<>(appointmentDto, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @PreAuthorize("hasRole('ROLE_CUSTOMER')")
+    public ResponseEntity<Map<String, String>> releaseHold(@PathVariable String holdId) {
+        appointmentService.releaseHold(holdId);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Hold released successfully");
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ROLE_CUSTOMER', 'ROLE_BUSINESS_OWNER')")
     public ResponseEntity<AppointmentDto> getAppointmentById(@PathVariable Long id) {
@@ -44,16 +93,38 @@ public class AppointmentController {
 
     @GetMapping("/customer/{customerId}")
     @PreAuthorize("hasRole('ROLE_CUSTOMER') or (hasRole('ROLE_BUSINESS_OWNER') and #customerId == authentication.principal.id)")
-    public ResponseEntity<List<AppointmentDto>> getAppointmentsByCustomerId(@PathVariable Long customerId) {
-        List<AppointmentDto> appointments = appointmentService.getAppointmentsByCustomerId(customerId);
-        return ResponseEntity.ok(appointments);
+    public ResponseEntity<AppointmentPageDto> getAppointmentsByCustomerId(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        AppointmentPageDto page = appointmentService.getAppointmentsByCustomerId(customerId, cursor, limit);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/business/{businessId}")
     @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
-    public ResponseEntity<List<AppointmentDto>> getAppointmentsByBusinessId(@PathVariable Long businessId) {
-        List<AppointmentDto> appointments = appointmentService.getAppointmentsByBusinessId(businessId);
-        return ResponseEntity.ok(appointments);
+    public ResponseEntity<AppointmentPageDto> getAppointmentsByBusinessId(
+            @PathVariable Long businessId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        AppointmentPageDto page = appointmentService.getAppointmentsByBusinessId(businessId, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/business/{businessId}/export")
+    @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
+    public ResponseEntity<StreamingResponseBody> exportAppointmentsByBusinessId(
+            @PathVariable Long businessId,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        StreamingResponseBody body = out -> appointmentExportService.exportBusinessAppointments(businessId, format, out);
+        String extension = format == ExportFormat.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments-" + businessId + "." + extension + "\"")
+                .body(body);
     }
 
     @GetMapping("/status/{status}")
@@ -114,16 +185,22 @@ public class AppointmentController {
 
     @GetMapping("/customer/{customerId}/past")
     @PreAuthorize("hasRole('ROLE_CUSTOMER') or (hasRole('ROLE_BUSINESS_OWNER') and #customerId == authentication.principal.id)")
-    public ResponseEntity<List<AppointmentDto>> getPastAppointmentsByCustomerId(@PathVariable Long customerId) {
-        List<AppointmentDto> appointments = appointmentService.getPastAppointmentsByCustomerId(customerId);
-        return ResponseEntity.ok(appointments);
+    public ResponseEntity<AppointmentPageDto> getPastAppointmentsByCustomerId(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        AppointmentPageDto page = appointmentService.getPastAppointmentsByCustomerId(customerId, cursor, limit);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/business/{businessId}/past")
     @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
-    public ResponseEntity<List<AppointmentDto>> getPastAppointmentsByBusinessId(@PathVariable Long businessId) {
-        List<AppointmentDto> appointments = appointmentService.getPastAppointmentsByBusinessId(businessId);
-        return ResponseEntity.ok(appointments);
+    public ResponseEntity<AppointmentPageDto> getPastAppointmentsByBusinessId(
+            @PathVariable Long businessId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        AppointmentPageDto page = appointmentService.getPastAppointmentsByBusinessId(businessId, cursor, limit);
+        return ResponseEntity.ok(page);
     }
 
     @PatchMapping("/{id}/status")
@@ -171,4 +248,24 @@ public class AppointmentController {
         List<String> availableSlots = appointmentService.getAvailableTimeSlots(businessId, serviceId, date);
         return ResponseEntity.ok(availableSlots);
     }
+
+    @GetMapping("/available-slots/capacity")
+    public ResponseEntity<List<SlotCapacityDto>> getSlotCapacities(
+            @RequestParam Long businessId,
+            @RequestParam Long serviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        List<SlotCapacityDto> slotCapacities = appointmentService.getSlotCapacities(businessId, serviceId, date);
+        return ResponseEntity.ok(slotCapacities);
+    }
+
+    @GetMapping("/available-slots/range")
+    public ResponseEntity<Map<LocalDate, List<String>>> getAvailableTimeSlotsForRange(
+            @RequestParam Long businessId,
+            @RequestParam Long serviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Map<LocalDate, List<String>> availableSlots = appointmentService.getAvailableTimeSlotsForRange(
+                businessId, serviceId, startDate, endDate);
+        return ResponseEntity.ok(availableSlots);
+    }
 } 
\ No newline at end of file
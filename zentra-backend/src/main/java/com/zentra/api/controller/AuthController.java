@@ -3,6 +3,7 @@ package com.zentra.api.controller;
 import com.zentra.api.dto.AuthRequest;
 import com.zentra.api.dto.AuthResponse;
 import com.zentra.api.dto.RegisterRequest;
+import com.zentra.api.model.Role;
 import com.zentra.api.model.User;
 import com.zentra.api.security.JwtTokenProvider;
 import com.zentra.api.service.UserService;
@@ -48,6 +49,13 @@ public class AuthController {
             return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
         }
 
+        // Operators are promoted to admin directly in the database
+        if (registerRequest.getRole() == Role.ROLE_ADMIN) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", "Admin accounts cannot be registered");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+
         User user = new User();
         user.setEmail(registerRequest.getEmail());
         user.setPassword(registerRequest.getPassword()); // UserService will encrypt
@@ -1,24 +1,52 @@
 package com.zentra.api.controller;
 
+import com.zentra.api.dto.AnalyticsReportJobDto;
+import com.zentra.api.dto.BookingHeatmapDto;
+import com.zentra.api.dto.BusinessAnalyticsComparisonDto;
 import com.zentra.api.dto.BusinessAnalyticsDto;
+import com.zentra.api.dto.LeadTimeHistogramDto;
+import com.zentra.api.dto.ReportJobStatus;
+import com.zentra.api.service.AnalyticsReportService;
 import com.zentra.api.service.BusinessAnalyticsService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/business-analytics")
 public class BusinessAnalyticsController {
 
+    // Request attributes of Tomcat's NIO connector for sending a file straight from the page cache to the socket
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final BusinessAnalyticsService businessAnalyticsService;
+    private final AnalyticsReportService analyticsReportService;
 
     @Autowired
-    public BusinessAnalyticsController(BusinessAnalyticsService businessAnalyticsService) {
+    public BusinessAnalyticsController(
+            BusinessAnalyticsService businessAnalyticsService,
+            AnalyticsReportService analyticsReportService) {
         this.businessAnalyticsService = businessAnalyticsService;
+        this.analyticsReportService = analyticsReportService;
     }
 
     @GetMapping("/{businessId}")
@@ -33,9 +61,10 @@ public class BusinessAnalyticsController {
     public ResponseEntity<BusinessAnalyticsDto> getBusinessAnalyticsForPeriod(
             @PathVariable Long businessId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean exact) {
         BusinessAnalyticsDto analytics = businessAnalyticsService.getBusinessAnalyticsForPeriod(
-                businessId, startDate, endDate);
+                businessId, startDate, endDate, exact);
         return ResponseEntity.ok(analytics);
     }
 
@@ -43,31 +72,145 @@ public class BusinessAnalyticsController {
     @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
     public ResponseEntity<BusinessAnalyticsDto> getBusinessDailyAnalytics(
             @PathVariable Long businessId,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "false") boolean exact) {
         
         LocalDate targetDate = date != null ? date : LocalDate.now();
-        BusinessAnalyticsDto analytics = businessAnalyticsService.getBusinessDailyAnalytics(businessId, targetDate);
+        BusinessAnalyticsDto analytics = businessAnalyticsService.getBusinessDailyAnalytics(businessId, targetDate, exact);
         return ResponseEntity.ok(analytics);
     }
 
     @GetMapping("/{businessId}/weekly")
     @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
-    public ResponseEntity<BusinessAnalyticsDto> getBusinessWeeklyAnalytics(@PathVariable Long businessId) {
-        BusinessAnalyticsDto analytics = businessAnalyticsService.getBusinessWeeklyAnalytics(businessId);
+    public ResponseEntity<BusinessAnalyticsDto> getBusinessWeeklyAnalytics(
+            @PathVariable Long businessId,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        BusinessAnalyticsDto analytics = businessAnalyticsService.getBusinessWeeklyAnalytics(businessId, exact);
         return ResponseEntity.ok(analytics);
     }
 
     @GetMapping("/{businessId}/monthly")
     @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
-    public ResponseEntity<BusinessAnalyticsDto> getBusinessMonthlyAnalytics(@PathVariable Long businessId) {
-        BusinessAnalyticsDto analytics = businessAnalyticsService.getBusinessMonthlyAnalytics(businessId);
+    public ResponseEntity<BusinessAnalyticsDto> getBusinessMonthlyAnalytics(
+            @PathVariable Long businessId,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        BusinessAnalyticsDto analytics = businessAnalyticsService.getBusinessMonthlyAnalytics(businessId, exact);
         return ResponseEntity.ok(analytics);
     }
 
     @GetMapping("/{businessId}/yearly")
     @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
-    public ResponseEntity<BusinessAnalyticsDto> getBusinessYearlyAnalytics(@PathVariable Long businessId) {
-        BusinessAnalyticsDto analytics = businessAnalyticsService.getBusinessYearlyAnalytics(businessId);
+    public ResponseEntity<BusinessAnalyticsDto> getBusinessYearlyAnalytics(
+            @PathVariable Long businessId,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        BusinessAnalyticsDto analytics = businessAnalyticsService.getBusinessYearlyAnalytics(businessId, exact);
         return ResponseEntity.ok(analytics);
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/{businessId}/period/compare")
+    @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
+    public ResponseEntity<BusinessAnalyticsComparisonDto> getBusinessComparisonForPeriod(
+            @PathVariable Long businessId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        BusinessAnalyticsComparisonDto comparison = businessAnalyticsService.getBusinessComparisonForPeriod(
+                businessId, startDate, endDate, exact);
+        return ResponseEntity.ok(comparison);
+    }
+
+    @GetMapping("/{businessId}/weekly/compare")
+    @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
+    public ResponseEntity<BusinessAnalyticsComparisonDto> getBusinessWeeklyComparison(
+            @PathVariable Long businessId,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        BusinessAnalyticsComparisonDto comparison = businessAnalyticsService.getBusinessWeeklyComparison(businessId, exact);
+        return ResponseEntity.ok(comparison);
+    }
+
+    @GetMapping("/{businessId}/monthly/compare")
+    @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
+    public ResponseEntity<BusinessAnalyticsComparisonDto> getBusinessMonthlyComparison(
+            @PathVariable Long businessId,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        BusinessAnalyticsComparisonDto comparison = businessAnalyticsService.getBusinessMonthlyComparison(businessId, exact);
+        return ResponseEntity.ok(comparison);
+    }
+
+    @GetMapping("/{businessId}/heatmap")
+    @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
+    public ResponseEntity<BookingHeatmapDto> getBookingHeatmap(
+            @PathVariable Long businessId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        BookingHeatmapDto heatmap = businessAnalyticsService.getBookingHeatmap(businessId, startDate, endDate);
+        return ResponseEntity.ok(heatmap);
+    }
+
+    @GetMapping("/{businessId}/lead-time")
+    @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
+    public ResponseEntity<LeadTimeHistogramDto> getLeadTimeHistogram(
+            @PathVariable Long businessId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        LeadTimeHistogramDto histogram = businessAnalyticsService.getLeadTimeHistogram(businessId, startDate, endDate);
+        return ResponseEntity.ok(histogram);
+    }
+
+    @PostMapping("/{businessId}/reports")
+    @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
+    public ResponseEntity<AnalyticsReportJobDto> submitReport(
+            @PathVariable Long businessId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        AnalyticsReportJobDto job = analyticsReportService.submitReport(businessId, startDate, endDate);
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{businessId}/reports/{jobId}")
+    @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
+    public ResponseEntity<AnalyticsReportJobDto> getReportJob(@PathVariable Long businessId, @PathVariable String jobId) {
+        AnalyticsReportJobDto job = analyticsReportService.getReportJob(businessId, jobId);
+        return ResponseEntity.ok(job);
+    }
+
+    // Served with sendfile when the connector supports it, otherwise by FileChannel.transferTo
+    @GetMapping("/{businessId}/reports/{jobId}/download")
+    @PreAuthorize("hasRole('ROLE_BUSINESS_OWNER')")
+    public ResponseEntity<?> downloadReport(
+            @PathVariable Long businessId,
+            @PathVariable String jobId,
+            HttpServletRequest request) throws IOException {
+        AnalyticsReportJobDto job = analyticsReportService.getReportJob(businessId, jobId);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            return new ResponseEntity<>(job, HttpStatus.CONFLICT);
+        }
+
+        Path file = analyticsReportService.getReportFile(businessId, jobId);
+        long size = Files.size(file);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"analytics-" + businessId + "-" + job.getStartDate() + "-"
+                                + job.getEndDate() + ".csv\"");
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return response.build();
+        }
+
+        StreamingResponseBody body = out -> {
+            try (FileChannel channel = FileChannel.open(file)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = 0;
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, target);
+                }
+            }
+        };
+        return response.body(body);
+    }
+}
@@ -1,6 +1,8 @@
 package com.zentra.api.controller;
 
+import com.zentra.api.dto.AutocompleteSuggestionDto;
 import com.zentra.api.dto.BusinessListingDto;
+import com.zentra.api.dto.NearbyBusinessListingDto;
 import com.zentra.api.service.BusinessListingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -34,8 +36,31 @@ public class BusinessListingController {
 
     @GetMapping("/search")
     public ResponseEntity<List<BusinessListingDto>> searchBusinessListings(
-            @RequestParam String query) {
-        List<BusinessListingDto> businessListings = businessListingService.searchBusinessListings(query);
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        List<BusinessListingDto> businessListings = businessListingService.searchBusinessListings(query, page, size);
         return ResponseEntity.ok(businessListings);
     }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyBusinessListingDto>> getNearbyBusinessListings(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "false") boolean openNow,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<NearbyBusinessListingDto> businessListings = businessListingService.getNearbyBusinessListings(
+                latitude, longitude, radiusKm, category, openNow, limit);
+        return ResponseEntity.ok(businessListings);
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AutocompleteSuggestionDto>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<AutocompleteSuggestionDto> suggestions = businessListingService.autocomplete(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.zentra.api.controller;
+
+import com.zentra.api.dto.PlatformAnalyticsDto;
+import com.zentra.api.service.PlatformAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/platform-analytics")
+public class PlatformAnalyticsController {
+
+    private final PlatformAnalyticsService platformAnalyticsService;
+
+    @Autowired
+    public PlatformAnalyticsController(PlatformAnalyticsService platformAnalyticsService) {
+        this.platformAnalyticsService = platformAnalyticsService;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<PlatformAnalyticsDto> getPlatformAnalytics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        PlatformAnalyticsDto analytics = platformAnalyticsService.getPlatformAnalytics(startDate, endDate, exact);
+        return ResponseEntity.ok(analytics);
+    }
+}
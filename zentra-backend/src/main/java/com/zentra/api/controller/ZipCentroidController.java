@@ -0,0 +1,34 @@
+package com.zentra.api.controller;
+
+import com.zentra.api.service.ZipCentroidService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/zip-centroids")
+public class ZipCentroidController {
+
+    private final ZipCentroidService zipCentroidService;
+
+    @Autowired
+    public ZipCentroidController(ZipCentroidService zipCentroidService) {
+        this.zipCentroidService = zipCentroidService;
+    }
+
+    // Body is CSV with one zip_code,latitude,longitude line per postal code, read as it arrives
+    @PutMapping(consumes = "text/csv")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, String>> importZipCentroids(InputStream csv) throws IOException {
+        int imported = zipCentroidService.importCsv(csv);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Imported " + imported + " zip centroids");
+        return ResponseEntity.ok(response);
+    }
+}
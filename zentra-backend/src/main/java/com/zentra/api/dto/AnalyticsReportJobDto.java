@@ -0,0 +1,22 @@
+package com.zentra.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsReportJobDto {
+    private String jobId;
+    private Long businessId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private ReportJobStatus status;
+    private Instant submittedAt;
+    private Instant finishedAt;
+    private String error;
+}
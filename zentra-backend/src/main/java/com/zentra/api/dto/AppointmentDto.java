@@ -24,6 +24,8 @@ public class AppointmentDto {
     private String businessPhone;
     private Long serviceId;
     private String serviceName;
+    private Long staffId;
+    private String staffName;
     private LocalDate date;
     private LocalTime startTime;
     private LocalTime endTime;
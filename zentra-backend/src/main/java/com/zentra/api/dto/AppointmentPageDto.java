@@ -0,0 +1,17 @@
+package com.zentra.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentPageDto {
+    private List<AppointmentDto> appointments;
+    
+    // Pass back as the cursor parameter to get the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.zentra.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteSuggestionDto {
+    private String text;
+    private SuggestionType type;
+    
+    // The business a BUSINESS suggestion opens; null for services, which are searched for by name
+    private Long businessId;
+}
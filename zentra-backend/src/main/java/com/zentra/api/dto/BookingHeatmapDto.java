@@ -0,0 +1,19 @@
+package com.zentra.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingHeatmapDto {
+    private Long businessId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    
+    // Non-cancelled appointments by start time: counts[dayOfWeek][hour], Monday = 0
+    private int[][] counts;
+}
@@ -0,0 +1,26 @@
+package com.zentra.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusinessAnalyticsComparisonDto {
+    private BusinessAnalyticsDto current;
+    private BusinessAnalyticsDto previous;
+    
+    // Current period minus previous period
+    private int appointmentsChange;
+    private int newBookingsChange;
+    private int cancelledAppointmentsChange;
+    private BigDecimal revenueChange;
+    private int customersChange;
+    private int newCustomersChange;
+    
+    // Revenue change as a percentage of the previous period; null when the previous period had no revenue
+    private BigDecimal revenueChangePercent;
+}
@@ -20,9 +20,12 @@ public class BusinessProfileDto {
     private String city;
     private String state;
     private String zipCode;
+    private Double latitude;
+    private Double longitude;
     private String phoneNumber;
     private String website;
     private String logoUrl;
+    private String category;
     private List<ServiceDto> services;
     private List<BusinessHoursDto> businessHours;
     private boolean active;
@@ -36,4 +36,7 @@ public class CreateAppointmentRequest {
     private int durationMinutes;
     
     private String notes;
+    
+    // Optional; a free qualified staff member is assigned when omitted
+    private Long staffId;
 } 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.zentra.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadTimeHistogramDto {
+    private Long businessId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    
+    // counts[i] is the number of appointments booked between bucketStartDays[i] and
+    // bucketStartDays[i + 1] days ahead; the last bucket is open-ended
+    private int[] bucketStartDays;
+    private long[] counts;
+}
@@ -0,0 +1,15 @@
+package com.zentra.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyBusinessListingDto {
+    private BusinessListingDto listing;
+    
+    // Straight-line distance from the searched location
+    private double distanceKm;
+}
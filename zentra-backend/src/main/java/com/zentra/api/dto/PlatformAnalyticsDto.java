@@ -0,0 +1,45 @@
+package com.zentra.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformAnalyticsDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    
+    // Summary metrics across every business
+    private int totalBusinesses;
+    private int businessesWithAppointments;
+    private long totalAppointments;
+    private BigDecimal totalRevenue;
+    
+    // Distinct customers across every business; estimated unless exact counts were requested
+    private long totalCustomers;
+    
+    // Appointments and revenue by business category
+    private Map<String, Long> appointmentsByCategory;
+    private Map<String, BigDecimal> revenueByCategory;
+    
+    // Top businesses by revenue
+    private List<BusinessStatsDto> topBusinesses;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BusinessStatsDto {
+        private Long businessId;
+        private String businessName;
+        private String category;
+        private long appointmentCount;
+        private BigDecimal revenue;
+    }
+}
@@ -0,0 +1,56 @@
+package com.zentra.api.dto;
+
+import com.zentra.api.model.RecurrenceFrequency;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringAppointmentRequest {
+    
+    @NotNull(message = "Customer ID is required")
+    private Long customerId;
+    
+    @NotNull(message = "Business ID is required")
+    private Long businessId;
+    
+    @NotNull(message = "Service ID is required")
+    private Long serviceId;
+    
+    @NotNull(message = "Start date is required")
+    @Future(message = "Start date must be in the future")
+    private LocalDate startDate;
+    
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+    
+    @NotNull(message = "Duration is required")
+    @Positive(message = "Duration must be positive")
+    private int durationMinutes;
+    
+    @NotNull(message = "Frequency is required")
+    private RecurrenceFrequency frequency;
+    
+    // Repeat every N days, weeks or months
+    @Positive(message = "Interval must be positive")
+    private int interval = 1;
+    
+    @Min(value = 1, message = "At least one occurrence is required")
+    @Max(value = 52, message = "At most 52 occurrences can be booked at once")
+    private int occurrences;
+    
+    private String notes;
+    
+    // Optional; a free qualified staff member is assigned to each occurrence when omitted
+    private Long staffId;
+}
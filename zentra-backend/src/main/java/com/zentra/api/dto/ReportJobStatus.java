@@ -0,0 +1,8 @@
+package com.zentra.api.dto;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
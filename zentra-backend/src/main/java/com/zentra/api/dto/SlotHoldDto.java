@@ -0,0 +1,24 @@
+package com.zentra.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldDto {
+    private String holdId;
+    private Long customerId;
+    private Long businessId;
+    private Long serviceId;
+    private Long staffId;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Instant expiresAt;
+}
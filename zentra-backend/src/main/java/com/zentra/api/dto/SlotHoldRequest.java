@@ -0,0 +1,41 @@
+package com.zentra.api.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldRequest {
+    
+    @NotNull(message = "Customer ID is required")
+    private Long customerId;
+    
+    @NotNull(message = "Business ID is required")
+    private Long businessId;
+    
+    @NotNull(message = "Service ID is required")
+    private Long serviceId;
+    
+    @NotNull(message = "Date is required")
+    @Future(message = "Date must be in the future")
+    private LocalDate date;
+    
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+    
+    private Long staffId;
+    
+    // How long to hold the slot; defaults to zentra.holds.default-minutes
+    @Positive(message = "Hold minutes must be positive")
+    @Max(value = 30, message = "A slot can be held for at most 30 minutes")
+    private Integer holdMinutes;
+}
@@ -0,0 +1,6 @@
+package com.zentra.api.dto;
+
+public enum SuggestionType {
+    BUSINESS,
+    SERVICE
+}
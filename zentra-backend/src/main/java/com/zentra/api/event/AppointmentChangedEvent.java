@@ -0,0 +1,6 @@
+package com.zentra.api.event;
+
+// Published inside the transaction that creates, moves, deletes or changes
+// the status of an appointment of the given business
+public record AppointmentChangedEvent(Long businessId) {
+}
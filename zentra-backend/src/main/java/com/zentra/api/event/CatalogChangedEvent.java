@@ -0,0 +1,6 @@
+package com.zentra.api.event;
+
+// Published inside the transaction that creates, updates or deletes a business
+// profile or one of its services
+public record CatalogChangedEvent(Long businessId) {
+}
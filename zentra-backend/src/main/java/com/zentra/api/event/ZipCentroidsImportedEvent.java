@@ -0,0 +1,5 @@
+package com.zentra.api.event;
+
+// Published inside the transaction that loads zip code centroids
+public record ZipCentroidsImportedEvent(int count) {
+}
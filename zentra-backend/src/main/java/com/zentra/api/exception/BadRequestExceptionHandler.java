@@ -0,0 +1,21 @@
+package com.zentra.api.exception;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// Services reject invalid input (paging limits, cursors, coordinates, date
+// ranges) and requests that do not fit the current state with the standard
+// IllegalArgumentException and IllegalStateException; both are the client's
+// fault and answer 400 with the message instead of a 500
+@RestControllerAdvice
+public class BadRequestExceptionHandler {
+
+    @ExceptionHandler({IllegalArgumentException.class, IllegalStateException.class})
+    public ResponseEntity<Map<String, String>> handleBadRequest(RuntimeException e) {
+        String message = e.getMessage() != null ? e.getMessage() : "Bad request";
+        return ResponseEntity.badRequest().body(Map.of("error", message));
+    }
+}
@@ -0,0 +1,13 @@
+package com.zentra.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when no more analytics reports can be queued until running ones finish
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ReportQueueFullException extends RuntimeException {
+
+    public ReportQueueFullException(String message) {
+        super(message);
+    }
+}
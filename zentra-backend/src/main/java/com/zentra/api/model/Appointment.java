@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class Appointment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_id_seq")
+    @SequenceGenerator(name = "appointments_id_seq", sequenceName = "appointments_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -33,6 +34,10 @@ public class Appointment {
     @JoinColumn(name = "service_id", nullable = false)
     private Service service;
 
+    @ManyToOne
+    @JoinColumn(name = "staff_id")
+    private Staff staff;
+
     @Column(nullable = false)
     private LocalDate date;
 
@@ -66,6 +71,9 @@ public class Appointment {
     
     @Column
     private String cancellationReason;
+    
+    @Column(length = 100)
+    private String idempotencyKey;
 
     @PrePersist
     protected void onCreate() {
@@ -0,0 +1,36 @@
+package com.zentra.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Bookings and revenue of one service on one business day
+@Data
+@Entity
+@Table(name = "business_daily_service_stats")
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusinessDailyServiceStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "business_id", nullable = false)
+    private Long businessId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Column(nullable = false)
+    private int bookings;
+
+    @Column(nullable = false)
+    private long revenueCents;
+}
@@ -0,0 +1,70 @@
+package com.zentra.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Rollup of one business's appointments on one day; rows are written by
+// BusinessDailyStatsRepository's refresh statements, never through JPA
+@Data
+@Entity
+@Table(name = "business_daily_stats")
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusinessDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "business_id", nullable = false)
+    private Long businessId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private int pendingCount;
+
+    @Column(nullable = false)
+    private int confirmedCount;
+
+    @Column(nullable = false)
+    private int completedCount;
+
+    @Column(nullable = false)
+    private int cancelledCount;
+
+    @Column(nullable = false)
+    private int noShowCount;
+
+    // Confirmed and completed appointments only, in cents
+    @Column(nullable = false)
+    private long revenueCents;
+
+    // Appointments booked on this day, whatever date they are for
+    @Column(nullable = false)
+    private int newBookings;
+
+    // Customers whose first appointment with the business is on this day
+    @Column(nullable = false)
+    private int newCustomers;
+
+    @Column(nullable = false)
+    private int returningCustomers;
+
+    // Non-cancelled appointments of the day by start hour, 24 entries
+    @Column(nullable = false)
+    private int[] hourlyCounts;
+
+    // Appointments of the day by how far ahead they were booked, one entry per
+    // lead time bucket of BusinessDailyStatsRepository
+    @Column(nullable = false)
+    private int[] leadTimeCounts;
+
+    // Serialized HyperLogLog of the day's customers; null until the rollup has computed it
+    private byte[] customerSketch;
+}
@@ -42,6 +42,13 @@ public class BusinessProfile {
     @Column
     private String zipCode;
 
+    // Set together; when unset the business is placed at the centre of its zip code
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
     @Column
     private String phoneNumber;
 
@@ -57,6 +64,10 @@ public class BusinessProfile {
     @OneToMany(mappedBy = "business", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<BusinessHours> businessHours = new ArrayList<>();
 
+    // Listing category, such as Wellness or Beauty
+    @Column(nullable = false)
+    private String category;
+
     @Column
     private boolean active = true;
 
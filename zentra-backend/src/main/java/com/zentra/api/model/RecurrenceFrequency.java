@@ -0,0 +1,7 @@
+package com.zentra.api.model;
+
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY
+}
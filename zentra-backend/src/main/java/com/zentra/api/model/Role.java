@@ -2,5 +2,6 @@ package com.zentra.api.model;
 
 public enum Role {
     ROLE_CUSTOMER,
-    ROLE_BUSINESS_OWNER
+    ROLE_BUSINESS_OWNER,
+    ROLE_ADMIN
 } 
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.zentra.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Centre of a postal code, used as the location of businesses that have not set their own
+@Data
+@Entity
+@Table(name = "zip_centroids")
+@NoArgsConstructor
+@AllArgsConstructor
+public class ZipCentroid {
+
+    @Id
+    private String zipCode;
+
+    @Column(nullable = false)
+    private double latitude;
+
+    @Column(nullable = false)
+    private double longitude;
+}
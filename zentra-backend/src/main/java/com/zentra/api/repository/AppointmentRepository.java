@@ -1,18 +1,46 @@
 package com.zentra.api.repository;
 
+import com.zentra.api.analytics.CustomerDay;
+import com.zentra.api.analytics.PeriodCustomerCounts;
+import com.zentra.api.availability.BookedInterval;
+import com.zentra.api.dto.AppointmentDto;
 import com.zentra.api.model.Appointment;
 import com.zentra.api.model.AppointmentStatus;
 import com.zentra.api.model.BusinessProfile;
 import com.zentra.api.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
     
+    // Builds BookedInterval rows for availability, without loading the entity graph
+    String BOOKED_INTERVAL_SELECT = "SELECT new com.zentra.api.availability.BookedInterval("
+            + "a.id, st.id, a.date, a.startTime, a.endTime) "
+            + "FROM Appointment a LEFT JOIN a.staff st "
+            + "WHERE a.business.id = :businessId AND a.status <> com.zentra.api.model.AppointmentStatus.CANCELLED ";
+    
+    // Builds AppointmentDto rows in one joined SELECT, without loading the entity graph
+    String DTO_SELECT = "SELECT new com.zentra.api.dto.AppointmentDto("
+            + "a.id, c.id, CONCAT(c.firstName, ' ', c.lastName), c.email, c.phoneNumber, "
+            + "b.id, b.businessName, b.address, b.phoneNumber, s.id, s.name, "
+            + "st.id, CASE WHEN st.id IS NULL THEN NULL ELSE CONCAT(st.firstName, ' ', st.lastName) END, "
+            + "a.date, a.startTime, a.endTime, a.durationMinutes, a.price, a.status, a.notes, a.cancellationReason) "
+            + "FROM Appointment a JOIN a.customer c JOIN a.business b JOIN a.service s LEFT JOIN a.staff st ";
+    
     // Find appointments by customer
     List<Appointment> findByCustomer(User customer);
     
@@ -40,6 +68,17 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // Find appointments by business and date range
     List<Appointment> findByBusinessAndDateBetween(BusinessProfile business, LocalDate startDate, LocalDate endDate);
     
+    // Time held by the non-cancelled appointments of a business over a date range
+    @Query(BOOKED_INTERVAL_SELECT + "AND a.date BETWEEN :startDate AND :endDate")
+    List<BookedInterval> findBookedIntervals(@Param("businessId") Long businessId,
+                                             @Param("startDate") LocalDate startDate,
+                                             @Param("endDate") LocalDate endDate);
+    
+    // Time held by the non-cancelled appointments of a business on any of the given dates
+    @Query(BOOKED_INTERVAL_SELECT + "AND a.date IN (:dates)")
+    List<BookedInterval> findBookedIntervalsOnDates(@Param("businessId") Long businessId,
+                                                    @Param("dates") Collection<LocalDate> dates);
+    
     // Find upcoming appointments for a customer
     List<Appointment> findByCustomerAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(User customer, LocalDate date);
     
@@ -51,4 +90,111 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     
     // Find past appointments for a business
     List<Appointment> findByBusinessAndDateLessThanOrderByDateDescStartTimeDesc(BusinessProfile business, LocalDate date);
+    
+    @Query(DTO_SELECT + "WHERE a.id = :id")
+    Optional<AppointmentDto> findDtoById(@Param("id") Long id);
+    
+    @Query(DTO_SELECT + "WHERE a.status = :status")
+    List<AppointmentDto> findDtosByStatus(@Param("status") AppointmentStatus status);
+    
+    @Query(DTO_SELECT + "WHERE c.id = :customerId AND a.status = :status")
+    List<AppointmentDto> findDtosByCustomerIdAndStatus(@Param("customerId") Long customerId,
+                                                       @Param("status") AppointmentStatus status);
+    
+    @Query(DTO_SELECT + "WHERE b.id = :businessId AND a.status = :status")
+    List<AppointmentDto> findDtosByBusinessIdAndStatus(@Param("businessId") Long businessId,
+                                                       @Param("status") AppointmentStatus status);
+    
+    @Query(DTO_SELECT + "WHERE a.date = :date")
+    List<AppointmentDto> findDtosByDate(@Param("date") LocalDate date);
+    
+    @Query(DTO_SELECT + "WHERE b.id = :businessId AND a.date = :date")
+    List<AppointmentDto> findDtosByBusinessIdAndDate(@Param("businessId") Long businessId,
+                                                     @Param("date") LocalDate date);
+    
+    @Query(DTO_SELECT + "WHERE c.id = :customerId AND a.date >= :date ORDER BY a.date ASC, a.startTime ASC")
+    List<AppointmentDto> findUpcomingDtosByCustomerId(@Param("customerId") Long customerId,
+                                                      @Param("date") LocalDate date);
+    
+    @Query(DTO_SELECT + "WHERE b.id = :businessId AND a.date >= :date ORDER BY a.date ASC, a.startTime ASC")
+    List<AppointmentDto> findUpcomingDtosByBusinessId(@Param("businessId") Long businessId,
+                                                      @Param("date") LocalDate date);
+    
+    // Keyset pages, newest first: the first page, then every row ordered before a (date, startTime, id) cursor
+    @Query(DTO_SELECT + "WHERE c.id = :customerId ORDER BY a.date DESC, a.startTime DESC, a.id DESC")
+    List<AppointmentDto> findDtoPageByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+    
+    @Query(DTO_SELECT + "WHERE c.id = :customerId AND (a.date, a.startTime, a.id) < (:date, :startTime, :id) "
+            + "ORDER BY a.date DESC, a.startTime DESC, a.id DESC")
+    List<AppointmentDto> findDtoPageByCustomerIdBefore(@Param("customerId") Long customerId,
+                                                       @Param("date") LocalDate date,
+                                                       @Param("startTime") LocalTime startTime,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
+    
+    @Query(DTO_SELECT + "WHERE b.id = :businessId ORDER BY a.date DESC, a.startTime DESC, a.id DESC")
+    List<AppointmentDto> findDtoPageByBusinessId(@Param("businessId") Long businessId, Pageable pageable);
+    
+    @Query(DTO_SELECT + "WHERE b.id = :businessId AND (a.date, a.startTime, a.id) < (:date, :startTime, :id) "
+            + "ORDER BY a.date DESC, a.startTime DESC, a.id DESC")
+    List<AppointmentDto> findDtoPageByBusinessIdBefore(@Param("businessId") Long businessId,
+                                                       @Param("date") LocalDate date,
+                                                       @Param("startTime") LocalTime startTime,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
+    
+    // Whole history in key order through a server-side cursor; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(DTO_SELECT + "WHERE b.id = :businessId ORDER BY a.date ASC, a.startTime ASC, a.id ASC")
+    Stream<AppointmentDto> streamDtosByBusinessId(@Param("businessId") Long businessId);
+    
+    // Date of a customer's first appointment with a business, whatever its status
+    @Query("SELECT MIN(a.date) FROM Appointment a WHERE a.business.id = :businessId AND a.customer.id = :customerId")
+    LocalDate findFirstAppointmentDate(@Param("businessId") Long businessId, @Param("customerId") Long customerId);
+    
+    // Distinct customers with an appointment in a date range; not additive across days, so not in the rollup
+    @Query("SELECT COUNT(DISTINCT a.customer.id) FROM Appointment a "
+            + "WHERE a.business.id = :businessId AND a.date BETWEEN :startDate AND :endDate")
+    long countDistinctCustomers(@Param("businessId") Long businessId,
+                                @Param("startDate") LocalDate startDate,
+                                @Param("endDate") LocalDate endDate);
+    
+    // Each customer with an appointment on each of the given days, for the rollup's customer sketches
+    @Query("SELECT DISTINCT new com.zentra.api.analytics.CustomerDay(a.date, a.customer.id) FROM Appointment a "
+            + "WHERE a.business.id = :businessId AND a.date IN :dates")
+    List<CustomerDay> findCustomerDays(@Param("businessId") Long businessId,
+                                       @Param("dates") Collection<LocalDate> dates);
+    
+    // Distinct customers of every business with an appointment in a date range
+    @Query("SELECT COUNT(DISTINCT a.customer.id) FROM Appointment a WHERE a.date BETWEEN :startDate AND :endDate")
+    long countDistinctCustomers(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    // Distinct customers before and from currentStartDate, for period comparisons
+    @Query("SELECT new com.zentra.api.analytics.PeriodCustomerCounts("
+            + "COUNT(DISTINCT CASE WHEN a.date < :currentStartDate THEN a.customer.id END), "
+            + "COUNT(DISTINCT CASE WHEN a.date >= :currentStartDate THEN a.customer.id END)) "
+            + "FROM Appointment a WHERE a.business.id = :businessId AND a.date BETWEEN :startDate AND :endDate")
+    PeriodCustomerCounts countDistinctCustomersByPeriod(@Param("businessId") Long businessId,
+                                                        @Param("startDate") LocalDate startDate,
+                                                        @Param("currentStartDate") LocalDate currentStartDate,
+                                                        @Param("endDate") LocalDate endDate);
+    
+    // Find the appointment a customer created with an idempotency key
+    Optional<Appointment> findByCustomerIdAndIdempotencyKey(Long customerId, String idempotencyKey);
+    
+    // Take a transaction-scoped PostgreSQL advisory lock on one business day
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(:businessKey, :dayKey)) AS booking_lock",
+            nativeQuery = true)
+    long lockBusinessDay(@Param("businessKey") int businessKey, @Param("dayKey") int dayKey);
+    
+    // Take the advisory locks for several business days in one statement, always in
+    // ascending day order so overlapping bulk bookings cannot deadlock each other
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(:businessKey, day_key) "
+            + "FROM generate_series(:firstDayKey, :lastDayKey) AS day_key WHERE day_key IN (:dayKeys)) AS booking_locks",
+            nativeQuery = true)
+    long lockBusinessDays(@Param("businessKey") int businessKey, @Param("firstDayKey") int firstDayKey,
+                          @Param("lastDayKey") int lastDayKey, @Param("dayKeys") Collection<Integer> dayKeys);
 } 
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.zentra.api.repository;
+
+import com.zentra.api.analytics.BusinessTotals;
+import com.zentra.api.analytics.DailyCounts;
+import com.zentra.api.analytics.DailyReportRow;
+import com.zentra.api.analytics.PeriodServiceAggregate;
+import com.zentra.api.analytics.ServiceAggregate;
+import com.zentra.api.catalog.ServicePopularity;
+import com.zentra.api.model.BusinessDailyStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface BusinessDailyStatsRepository extends JpaRepository<BusinessDailyStats, Long> {
+    
+    // Lower bounds in days of lead time buckets 1 to 10; bucket 0 is same-day
+    // booking. Keep in step with LEAD_TIME_BUCKET_START_DAYS in the analytics service.
+    String LEAD_TIME_BUCKET_BOUNDS = "ARRAY[1, 2, 3, 4, 8, 15, 31, 61, 91, 181]";
+    
+    // Start hour histograms of a business's days in a date range
+    @Query("SELECT new com.zentra.api.analytics.DailyCounts(s.date, s.hourlyCounts) FROM BusinessDailyStats s "
+            + "WHERE s.businessId = :businessId AND s.date BETWEEN :startDate AND :endDate")
+    List<DailyCounts> findHourlyCounts(@Param("businessId") Long businessId,
+                                       @Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+    
+    // Lead time histograms of a business's days in a date range
+    @Query("SELECT new com.zentra.api.analytics.DailyCounts(s.date, s.leadTimeCounts) FROM BusinessDailyStats s "
+            + "WHERE s.businessId = :businessId AND s.date BETWEEN :startDate AND :endDate")
+    List<DailyCounts> findLeadTimeCounts(@Param("businessId") Long businessId,
+                                         @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate);
+    
+    // Find the rollup rows of a business in a date range
+    List<BusinessDailyStats> findByBusinessIdAndDateBetweenOrderByDate(Long businessId, LocalDate startDate,
+                                                                      LocalDate endDate);
+    
+    // A business's days in a date range in date order through a server-side cursor; must be consumed
+    // inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.zentra.api.analytics.DailyReportRow(s.date, s.pendingCount, s.confirmedCount, "
+            + "s.completedCount, s.cancelledCount, s.noShowCount, s.revenueCents, s.newBookings, s.newCustomers, "
+            + "s.returningCustomers) FROM BusinessDailyStats s "
+            + "WHERE s.businessId = :businessId AND s.date BETWEEN :startDate AND :endDate ORDER BY s.date")
+    Stream<DailyReportRow> streamReportRows(@Param("businessId") Long businessId,
+                                            @Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+    
+    // Bookings per service since a date, for ranking autocomplete suggestions
+    @Query("SELECT new com.zentra.api.catalog.ServicePopularity(x.serviceId, SUM(x.bookings)) "
+            + "FROM BusinessDailyServiceStats x WHERE x.date >= :since GROUP BY x.serviceId")
+    List<ServicePopularity> sumBookingsByServiceSince(@Param("since") LocalDate since);
+    
+    // Bookings and revenue per service summed over a date range
+    @Query("SELECT new com.zentra.api.analytics.ServiceAggregate(x.serviceId, s.name, SUM(x.bookings), SUM(x.revenueCents)) "
+            + "FROM BusinessDailyServiceStats x JOIN Service s ON s.id = x.serviceId "
+            + "WHERE x.businessId = :businessId AND x.date BETWEEN :startDate AND :endDate "
+            + "GROUP BY x.serviceId, s.name")
+    List<ServiceAggregate> sumServicesByBusinessId(@Param("businessId") Long businessId,
+                                                   @Param("startDate") LocalDate startDate,
+                                                   @Param("endDate") LocalDate endDate);
+    
+    // Bookings and revenue per service summed separately before and from currentStartDate
+    @Query("SELECT new com.zentra.api.analytics.PeriodServiceAggregate(x.serviceId, s.name, "
+            + "SUM(CASE WHEN x.date < :currentStartDate THEN x.bookings ELSE 0 END), "
+            + "SUM(CASE WHEN x.date < :currentStartDate THEN x.revenueCents ELSE 0 END), "
+            + "SUM(CASE WHEN x.date >= :currentStartDate THEN x.bookings ELSE 0 END), "
+            + "SUM(CASE WHEN x.date >= :currentStartDate THEN x.revenueCents ELSE 0 END)) "
+            + "FROM BusinessDailyServiceStats x JOIN Service s ON s.id = x.serviceId "
+            + "WHERE x.businessId = :businessId AND x.date BETWEEN :startDate AND :endDate "
+            + "GROUP BY x.serviceId, s.name")
+    List<PeriodServiceAggregate> sumServicesByBusinessIdAndPeriod(@Param("businessId") Long businessId,
+                                                                  @Param("startDate") LocalDate startDate,
+                                                                  @Param("currentStartDate") LocalDate currentStartDate,
+                                                                  @Param("endDate") LocalDate endDate);
+    
+    // Appointments and revenue of every business with an id in [firstBusinessId, lastBusinessId], including
+    // businesses without any appointments in the date range
+    @Query("SELECT new com.zentra.api.analytics.BusinessTotals(b.id, b.businessName, b.category, "
+            + "COALESCE(SUM(s.pendingCount + s.confirmedCount + s.completedCount + s.cancelledCount + s.noShowCount), 0), "
+            + "COALESCE(SUM(s.revenueCents), 0)) "
+            + "FROM BusinessProfile b LEFT JOIN BusinessDailyStats s "
+            + "ON s.businessId = b.id AND s.date BETWEEN :startDate AND :endDate "
+            + "WHERE b.id BETWEEN :firstBusinessId AND :lastBusinessId "
+            + "GROUP BY b.id, b.businessName, b.category")
+    List<BusinessTotals> sumByBusinessIdRange(@Param("firstBusinessId") Long firstBusinessId,
+                                              @Param("lastBusinessId") Long lastBusinessId,
+                                              @Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate);
+    
+    // Every day a business's rollup may hold data for
+    @Query("SELECT a.date FROM Appointment a WHERE a.business.id = :businessId "
+            + "UNION SELECT CAST(a.createdAt AS LocalDate) FROM Appointment a WHERE a.business.id = :businessId "
+            + "UNION SELECT s.date FROM BusinessDailyStats s WHERE s.businessId = :businessId")
+    List<LocalDate> findRollupDates(@Param("businessId") Long businessId);
+    
+    // Create any missing rows for the days and lock them all in ascending date order.
+    // Refreshes run in later statements, so they see every change committed by
+    // transactions that held these rows before.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO business_daily_stats (business_id, date) "
+            + "SELECT :businessId, CAST(day AS DATE) "
+            + "FROM generate_series(CAST(:firstDate AS TIMESTAMP), CAST(:lastDate AS TIMESTAMP), INTERVAL '1 day') AS day "
+            + "WHERE CAST(day AS DATE) IN (:dates) ORDER BY 2 "
+            + "ON CONFLICT (business_id, date) DO UPDATE SET business_id = EXCLUDED.business_id",
+            nativeQuery = true)
+    int lockDays(@Param("businessId") Long businessId, @Param("firstDate") LocalDate firstDate,
+                 @Param("lastDate") LocalDate lastDate, @Param("dates") Collection<LocalDate> dates);
+    
+    // Recompute the daily rows from the appointments table
+    @Modifying
+    @Query(value = "UPDATE business_daily_stats s "
+            + "SET (pending_count, confirmed_count, completed_count, cancelled_count, no_show_count, "
+            + "     revenue_cents, new_customers, returning_customers) = ("
+            + "    SELECT count(*) FILTER (WHERE a.status = 'PENDING'), "
+            + "           count(*) FILTER (WHERE a.status = 'CONFIRMED'), "
+            + "           count(*) FILTER (WHERE a.status = 'COMPLETED'), "
+            + "           count(*) FILTER (WHERE a.status = 'CANCELLED'), "
+            + "           count(*) FILTER (WHERE a.status = 'NO_SHOW'), "
+            + "           CAST(COALESCE(sum(a.price) FILTER (WHERE a.status IN ('CONFIRMED', 'COMPLETED')), 0) * 100 AS BIGINT), "
+            + "           count(DISTINCT a.customer_id) FILTER (WHERE NOT EXISTS ("
+            + "                   SELECT 1 FROM appointments p WHERE p.business_id = a.business_id "
+            + "                   AND p.customer_id = a.customer_id AND p.date < a.date)), "
+            + "           count(DISTINCT a.customer_id) FILTER (WHERE EXISTS ("
+            + "                   SELECT 1 FROM appointments p WHERE p.business_id = a.business_id "
+            + "                   AND p.customer_id = a.customer_id AND p.date < a.date)) "
+            + "    FROM appointments a WHERE a.business_id = s.business_id AND a.date = s.date), "
+            + "    new_bookings = ("
+            + "    SELECT count(*) FROM appointments a WHERE a.business_id = s.business_id "
+            + "    AND a.created_at >= s.date AND a.created_at < s.date + 1), "
+            + "    hourly_counts = ARRAY("
+            + "    SELECT CAST(count(a.id) AS INT) FROM generate_series(0, 23) AS h "
+            + "    LEFT JOIN appointments a ON a.business_id = s.business_id AND a.date = s.date "
+            + "    AND a.status <> 'CANCELLED' AND extract(hour FROM a.start_time) = h "
+            + "    GROUP BY h ORDER BY h), "
+            + "    lead_time_counts = ARRAY("
+            + "    SELECT CAST(count(a.id) AS INT) FROM generate_series(0, 10) AS b "
+            + "    LEFT JOIN appointments a ON a.business_id = s.business_id AND a.date = s.date "
+            + "    AND width_bucket(a.date - CAST(a.created_at AS DATE), " + LEAD_TIME_BUCKET_BOUNDS + ") = b "
+            + "    GROUP BY b ORDER BY b), "
+            + "    customer_sketch = CAST('' AS BYTEA) "
+            + "WHERE s.business_id = :businessId AND s.date IN (:dates)",
+            nativeQuery = true)
+    int refreshDays(@Param("businessId") Long businessId, @Param("dates") Collection<LocalDate> dates);
+    
+    // Store customer sketches, hex encoded, of the given days in one statement;
+    // refreshDays leaves every refreshed day with an empty sketch
+    @Modifying
+    @Query(value = "UPDATE business_daily_stats s SET customer_sketch = decode(v.sketch, 'hex') "
+            + "FROM unnest(CAST(:dates AS DATE[]), CAST(:sketches AS TEXT[])) AS v(date, sketch) "
+            + "WHERE s.business_id = :businessId AND s.date = v.date",
+            nativeQuery = true)
+    int updateCustomerSketches(@Param("businessId") Long businessId, @Param("dates") LocalDate[] dates,
+                               @Param("sketches") String[] sketches);
+    
+    // Customer sketches of every business with an id in [firstBusinessId, lastBusinessId] in a date range
+    @Query("SELECT s.customerSketch FROM BusinessDailyStats s "
+            + "WHERE s.businessId BETWEEN :firstBusinessId AND :lastBusinessId AND s.date BETWEEN :startDate AND :endDate")
+    List<byte[]> findCustomerSketchesByBusinessIdRange(@Param("firstBusinessId") Long firstBusinessId,
+                                                       @Param("lastBusinessId") Long lastBusinessId,
+                                                       @Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+    
+    @Modifying
+    @Query(value = "DELETE FROM business_daily_service_stats WHERE business_id = :businessId AND date IN (:dates)",
+            nativeQuery = true)
+    int deleteServiceDays(@Param("businessId") Long businessId, @Param("dates") Collection<LocalDate> dates);
+    
+    @Modifying
+    @Query(value = "INSERT INTO business_daily_service_stats (business_id, date, service_id, bookings, revenue_cents) "
+            + "SELECT business_id, date, service_id, count(*), "
+            + "       CAST(COALESCE(sum(price) FILTER (WHERE status IN ('CONFIRMED', 'COMPLETED')), 0) * 100 AS BIGINT) "
+            + "FROM appointments WHERE business_id = :businessId AND date IN (:dates) "
+            + "GROUP BY business_id, date, service_id",
+            nativeQuery = true)
+    int insertServiceDays(@Param("businessId") Long businessId, @Param("dates") Collection<LocalDate> dates);
+}
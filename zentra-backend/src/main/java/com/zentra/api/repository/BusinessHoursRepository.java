@@ -1,8 +1,10 @@
 package com.zentra.api.repository;
 
+import com.zentra.api.catalog.OpeningHours;
 import com.zentra.api.model.BusinessHours;
 import com.zentra.api.model.BusinessProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
@@ -20,4 +22,9 @@ public interface BusinessHoursRepository extends JpaRepository<BusinessHours, Lo
     
     // Find business hours by business and isOpen flag
     List<BusinessHours> findByBusinessAndIsOpen(BusinessProfile business, boolean isOpen);
+    
+    // Open days of every active business, for the listing catalog
+    @Query("SELECT new com.zentra.api.catalog.OpeningHours(h.business.id, h.dayOfWeek, h.openTime, h.closeTime) "
+            + "FROM BusinessHours h WHERE h.isOpen = true AND h.business.active = true")
+    List<OpeningHours> findOpeningHours();
 } 
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.zentra.api.repository;
 
+import com.zentra.api.catalog.CatalogRow;
 import com.zentra.api.model.BusinessProfile;
 import com.zentra.api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,14 +20,29 @@ public interface BusinessProfileRepository extends JpaRepository<BusinessProfile
     Optional<BusinessProfile> findByBusinessNameContainingIgnoreCase(String businessName);
     
     // Find business profiles by city
-    Optional<BusinessProfile> findByCityIgnoreCase(String city);
+    List<BusinessProfile> findByCityIgnoreCase(String city);
     
     // Find business profiles by state
-    Optional<BusinessProfile> findByStateIgnoreCase(String state);
+    List<BusinessProfile> findByStateIgnoreCase(String state);
     
     // Find business profiles by zip code
-    Optional<BusinessProfile> findByZipCode(String zipCode);
+    List<BusinessProfile> findByZipCode(String zipCode);
     
     // Check if a business profile exists for a specific owner
     boolean existsByOwner(User owner);
-} 
\ No newline at end of file
+    
+    // Ids of every business profile
+    @Query("SELECT b.id FROM BusinessProfile b ORDER BY b.id")
+    List<Long> findAllIds();
+    
+    // Every active business with each of its active services, one row per service and a single row with
+    // null service columns for businesses without any; ordered by business and service id. Businesses
+    // without a location of their own are placed at the centre of their zip code.
+    @Query("SELECT new com.zentra.api.catalog.CatalogRow(b.id, b.businessName, b.category, b.description, b.city, "
+            + "COALESCE(b.latitude, z.latitude), COALESCE(b.longitude, z.longitude), b.logoUrl, "
+            + "s.id, s.name, s.durationMinutes, s.price) "
+            + "FROM BusinessProfile b LEFT JOIN b.services s ON s.active = true "
+            + "LEFT JOIN ZipCentroid z ON z.zipCode = b.zipCode "
+            + "WHERE b.active = true ORDER BY b.id, s.id")
+    List<CatalogRow> findCatalogRows();
+}
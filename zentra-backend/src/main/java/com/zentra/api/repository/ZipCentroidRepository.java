@@ -0,0 +1,22 @@
+package com.zentra.api.repository;
+
+import com.zentra.api.model.ZipCentroid;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ZipCentroidRepository extends JpaRepository<ZipCentroid, String> {
+    
+    // Insert or replace the centroids of the given zip codes in one statement
+    @Modifying
+    @Query(value = "INSERT INTO zip_centroids (zip_code, latitude, longitude) "
+            + "SELECT * FROM unnest(CAST(:zipCodes AS VARCHAR[]), CAST(:latitudes AS DOUBLE PRECISION[]), "
+            + "CAST(:longitudes AS DOUBLE PRECISION[])) "
+            + "ON CONFLICT (zip_code) DO UPDATE SET latitude = EXCLUDED.latitude, longitude = EXCLUDED.longitude",
+            nativeQuery = true)
+    int upsertAll(@Param("zipCodes") String[] zipCodes, @Param("latitudes") Double[] latitudes,
+                  @Param("longitudes") Double[] longitudes);
+}
@@ -0,0 +1,19 @@
+package com.zentra.api.service;
+
+import com.zentra.api.dto.AnalyticsReportJobDto;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+// Analytics reports over long periods are built in the background: a job is
+// submitted, polled until it completes, and its CSV file downloaded
+public interface AnalyticsReportService {
+
+    // Queue a daily breakdown report of a business for a period
+    AnalyticsReportJobDto submitReport(Long businessId, LocalDate startDate, LocalDate endDate);
+
+    AnalyticsReportJobDto getReportJob(Long businessId, String jobId);
+
+    // The CSV file of a completed report
+    Path getReportFile(Long businessId, String jobId);
+}
@@ -0,0 +1,12 @@
+package com.zentra.api.service;
+
+import com.zentra.api.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface AppointmentExportService {
+    
+    // Write a business's full appointment history to the stream as it is read from the database
+    void exportBusinessAppointments(Long businessId, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -1,25 +1,46 @@
 package com.zentra.api.service;
 
 import com.zentra.api.dto.AppointmentDto;
+import com.zentra.api.dto.AppointmentPageDto;
 import com.zentra.api.dto.CreateAppointmentRequest;
+import com.zentra.api.dto.RecurringAppointmentRequest;
+import com.zentra.api.dto.SlotCapacityDto;
+import com.zentra.api.dto.SlotHoldDto;
+import com.zentra.api.dto.SlotHoldRequest;
 import com.zentra.api.model.AppointmentStatus;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public interface AppointmentService {
     
     // Create a new appointment
     AppointmentDto createAppointment(CreateAppointmentRequest request);
     
+    // Create a new appointment once per idempotency key; retries return the original appointment
+    AppointmentDto createAppointment(CreateAppointmentRequest request, String idempotencyKey);
+    
+    // Book every occurrence of a recurring appointment, or none of them
+    List<AppointmentDto> createRecurringAppointments(RecurringAppointmentRequest request);
+    
+    // Temporarily hold a slot so it is not offered to anyone else
+    SlotHoldDto holdSlot(SlotHoldRequest request);
+    
+    // Turn a hold into an appointment
+    AppointmentDto confirmHold(String holdId, String notes);
+    
+    // Give up a hold before it expires
+    void releaseHold(String holdId);
+    
     // Get appointment by ID
     AppointmentDto getAppointmentById(Long id);
     
-    // Get all appointments for a customer
-    List<AppointmentDto> getAppointmentsByCustomerId(Long customerId);
+    // Get a page of a customer's appointments, newest first
+    AppointmentPageDto getAppointmentsByCustomerId(Long customerId, String cursor, int limit);
     
-    // Get all appointments for a business
-    List<AppointmentDto> getAppointmentsByBusinessId(Long businessId);
+    // Get a page of a business's appointments, newest first
+    AppointmentPageDto getAppointmentsByBusinessId(Long businessId, String cursor, int limit);
     
     // Get appointments by status
     List<AppointmentDto> getAppointmentsByStatus(AppointmentStatus status);
@@ -42,11 +63,11 @@ public interface AppointmentService {
     // Get upcoming appointments for a business
     List<AppointmentDto> getUpcomingAppointmentsByBusinessId(Long businessId);
     
-    // Get past appointments for a customer
-    List<AppointmentDto> getPastAppointmentsByCustomerId(Long customerId);
+    // Get a page of past appointments for a customer, newest first
+    AppointmentPageDto getPastAppointmentsByCustomerId(Long customerId, String cursor, int limit);
     
-    // Get past appointments for a business
-    List<AppointmentDto> getPastAppointmentsByBusinessId(Long businessId);
+    // Get a page of past appointments for a business, newest first
+    AppointmentPageDto getPastAppointmentsByBusinessId(Long businessId, String cursor, int limit);
     
     // Update appointment status
     AppointmentDto updateAppointmentStatus(Long id, AppointmentStatus status);
@@ -62,4 +83,11 @@ public interface AppointmentService {
     
     // Get available time slots for a service on a specific date
     List<String> getAvailableTimeSlots(Long businessId, Long serviceId, LocalDate date);
+    
+    // Get every time slot for a service on a date with its remaining staff capacity
+    List<SlotCapacityDto> getSlotCapacities(Long businessId, Long serviceId, LocalDate date);
+    
+    // Get available time slots for a service for every day in a date range
+    Map<LocalDate, List<String>> getAvailableTimeSlotsForRange(Long businessId, Long serviceId,
+                                                               LocalDate startDate, LocalDate endDate);
 } 
\ No newline at end of file
@@ -1,25 +1,46 @@
 package com.zentra.api.service;
 
+import com.zentra.api.dto.BookingHeatmapDto;
+import com.zentra.api.dto.BusinessAnalyticsComparisonDto;
 import com.zentra.api.dto.BusinessAnalyticsDto;
+import com.zentra.api.dto.LeadTimeHistogramDto;
 import java.time.LocalDate;
 
+// Distinct customer counts are estimated from HyperLogLog sketches (about 1%
+// error) unless exact is set, which counts them from the appointments
 public interface BusinessAnalyticsService {
     
     // Get analytics for a business
     BusinessAnalyticsDto getBusinessAnalytics(Long businessId);
     
     // Get analytics for a business for a specific period
-    BusinessAnalyticsDto getBusinessAnalyticsForPeriod(Long businessId, LocalDate startDate, LocalDate endDate);
+    BusinessAnalyticsDto getBusinessAnalyticsForPeriod(Long businessId, LocalDate startDate, LocalDate endDate, boolean exact);
     
     // Get daily analytics for a specific date
-    BusinessAnalyticsDto getBusinessDailyAnalytics(Long businessId, LocalDate date);
+    BusinessAnalyticsDto getBusinessDailyAnalytics(Long businessId, LocalDate date, boolean exact);
     
     // Get weekly analytics (default is current week)
-    BusinessAnalyticsDto getBusinessWeeklyAnalytics(Long businessId);
+    BusinessAnalyticsDto getBusinessWeeklyAnalytics(Long businessId, boolean exact);
     
     // Get monthly analytics (default is current month)
-    BusinessAnalyticsDto getBusinessMonthlyAnalytics(Long businessId);
+    BusinessAnalyticsDto getBusinessMonthlyAnalytics(Long businessId, boolean exact);
     
     // Get yearly analytics (default is current year)
-    BusinessAnalyticsDto getBusinessYearlyAnalytics(Long businessId);
-} 
\ No newline at end of file
+    BusinessAnalyticsDto getBusinessYearlyAnalytics(Long businessId, boolean exact);
+    
+    // Get appointment counts by day of week and hour for a period
+    BookingHeatmapDto getBookingHeatmap(Long businessId, LocalDate startDate, LocalDate endDate);
+    
+    // Get how far ahead appointments in a period were booked
+    LeadTimeHistogramDto getLeadTimeHistogram(Long businessId, LocalDate startDate, LocalDate endDate);
+    
+    // Compare a period with the period of the same length just before it
+    BusinessAnalyticsComparisonDto getBusinessComparisonForPeriod(Long businessId, LocalDate startDate, LocalDate endDate,
+                                                                  boolean exact);
+    
+    // Compare the current week with last week
+    BusinessAnalyticsComparisonDto getBusinessWeeklyComparison(Long businessId, boolean exact);
+    
+    // Compare the current month with last month
+    BusinessAnalyticsComparisonDto getBusinessMonthlyComparison(Long businessId, boolean exact);
+}
@@ -1,6 +1,8 @@
 package com.zentra.api.service;
 
+import com.zentra.api.dto.AutocompleteSuggestionDto;
 import com.zentra.api.dto.BusinessListingDto;
+import com.zentra.api.dto.NearbyBusinessListingDto;
 
 import java.util.List;
 
@@ -12,6 +14,13 @@ public interface BusinessListingService {
     // Get business listings by category
     List<BusinessListingDto> getBusinessListingsByCategory(String category);
     
-    // Search business listings by name
-    List<BusinessListingDto> searchBusinessListings(String searchTerm);
+    // Search business listings by name, service, description and city, most relevant first
+    List<BusinessListingDto> searchBusinessListings(String query, int page, int size);
+    
+    // Suggest business and service names as the user types, most booked first
+    List<AutocompleteSuggestionDto> autocomplete(String prefix, int limit);
+    
+    // Get business listings near a location, nearest first
+    List<NearbyBusinessListingDto> getNearbyBusinessListings(double latitude, double longitude, double radiusKm,
+                                                             String category, boolean openNow, int limit);
 } 
\ No newline at end of file
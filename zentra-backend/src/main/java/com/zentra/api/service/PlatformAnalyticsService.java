@@ -0,0 +1,11 @@
+package com.zentra.api.service;
+
+import com.zentra.api.dto.PlatformAnalyticsDto;
+import java.time.LocalDate;
+
+public interface PlatformAnalyticsService {
+    
+    // Get analytics across every business for a specific period; distinct customers
+    // are estimated from HyperLogLog sketches unless exact is set
+    PlatformAnalyticsDto getPlatformAnalytics(LocalDate startDate, LocalDate endDate, boolean exact);
+}
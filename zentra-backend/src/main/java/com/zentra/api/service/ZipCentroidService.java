@@ -0,0 +1,11 @@
+package com.zentra.api.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ZipCentroidService {
+    
+    // Load zip code centroids from CSV lines of zip_code,latitude,longitude, replacing
+    // the centroids of zip codes that are already known; returns the number of centroids written
+    int importCsv(InputStream csv) throws IOException;
+}
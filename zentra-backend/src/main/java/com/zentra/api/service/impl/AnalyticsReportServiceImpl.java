@@ -0,0 +1,276 @@
+package com.zentra.api.service.impl;
+
+import com.zentra.api.analytics.Cents;
+import com.zentra.api.analytics.DailyReportRow;
+import com.zentra.api.dto.AnalyticsReportJobDto;
+import com.zentra.api.dto.ReportJobStatus;
+import com.zentra.api.exception.ReportQueueFullException;
+import com.zentra.api.repository.BusinessDailyStatsRepository;
+import com.zentra.api.repository.BusinessProfileRepository;
+import com.zentra.api.service.AnalyticsReportService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+// Runs analytics reports on a fixed pool of report threads, so long reports
+// queue instead of holding request threads. Each business has at most
+// maxRunningPerBusiness reports running; its other reports wait in its own
+// queue, so one business cannot take every thread. Reports are written to
+// temp files, which are deleted along with the job once the retention
+// period has passed.
+@Component
+public class AnalyticsReportServiceImpl implements AnalyticsReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsReportServiceImpl.class);
+
+    private static final String CSV_HEADER = "date,pending,confirmed,completed,cancelled,no_show,revenue,"
+            + "new_bookings,new_customers,returning_customers";
+    private static final int REPORT_VALUES = 9;
+    private static final int REVENUE_VALUE = 5;
+    // Per-day counts of customers who had booked before; summing them counts a
+    // customer once per day they return, so the totals row leaves the column empty
+    private static final int RETURNING_CUSTOMERS_VALUE = 8;
+
+    private final BusinessProfileRepository businessProfileRepository;
+    private final BusinessDailyStatsRepository statsRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+    private final int maxRunningPerBusiness;
+    private final int maxUnfinished;
+    private final Duration retention;
+
+    private final ConcurrentHashMap<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    // Scheduling state, guarded by this
+    private final Map<Long, Deque<ReportJob>> waitingByBusiness = new HashMap<>();
+    private final Map<Long, Integer> runningByBusiness = new HashMap<>();
+    private int unfinished;
+
+    @Autowired
+    public AnalyticsReportServiceImpl(
+            BusinessProfileRepository businessProfileRepository,
+            BusinessDailyStatsRepository statsRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${zentra.analytics.reports.threads:2}") int threads,
+            @Value("${zentra.analytics.reports.max-running-per-business:1}") int maxRunningPerBusiness,
+            @Value("${zentra.analytics.reports.max-queued:100}") int maxUnfinished,
+            @Value("${zentra.analytics.reports.retention-minutes:60}") long retentionMinutes) {
+        this.businessProfileRepository = businessProfileRepository;
+        this.statsRepository = statsRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Each report holds a database connection while it runs, so keep this
+        // well below the connection pool size
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("analytics-report-"));
+        this.maxRunningPerBusiness = maxRunningPerBusiness;
+        this.maxUnfinished = maxUnfinished;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    @Override
+    public AnalyticsReportJobDto submitReport(Long businessId, LocalDate startDate, LocalDate endDate) {
+        if (!businessProfileRepository.existsById(businessId)) {
+            throw new EntityNotFoundException("Business not found");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), businessId, startDate, endDate, Instant.now());
+        synchronized (this) {
+            if (unfinished >= maxUnfinished) {
+                throw new ReportQueueFullException("Too many reports in progress, try again later");
+            }
+            unfinished++;
+            jobs.put(job.id, job);
+            waitingByBusiness.computeIfAbsent(businessId, id -> new ArrayDeque<>()).add(job);
+            startWaiting(businessId);
+        }
+        return job.toDto();
+    }
+
+    @Override
+    public AnalyticsReportJobDto getReportJob(Long businessId, String jobId) {
+        return findJob(businessId, jobId).toDto();
+    }
+
+    @Override
+    public Path getReportFile(Long businessId, String jobId) {
+        ReportJob job = findJob(businessId, jobId);
+        if (job.status != ReportJobStatus.COMPLETED) {
+            throw new IllegalStateException("Report is not ready");
+        }
+        return job.file;
+    }
+
+    @Scheduled(fixedDelayString = "${zentra.analytics.reports.cleanup-millis:60000}")
+    public void deleteExpiredReports() {
+        Instant cutoff = Instant.now().minus(retention);
+        Iterator<ReportJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            ReportJob job = iterator.next();
+            if (job.finishedAt != null && job.finishedAt.isBefore(cutoff)) {
+                iterator.remove();
+                deleteFile(job);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(this::deleteFile);
+    }
+
+    private ReportJob findJob(Long businessId, String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.businessId.equals(businessId)) {
+            throw new EntityNotFoundException("Report not found");
+        }
+        return job;
+    }
+
+    // Hand the business's waiting reports to the pool while it is below its limit; call holding the lock
+    private void startWaiting(Long businessId) {
+        Deque<ReportJob> waiting = waitingByBusiness.get(businessId);
+        while (!waiting.isEmpty() && runningByBusiness.getOrDefault(businessId, 0) < maxRunningPerBusiness) {
+            ReportJob job = waiting.poll();
+            runningByBusiness.merge(businessId, 1, Integer::sum);
+            executor.execute(() -> run(job));
+        }
+        if (waiting.isEmpty()) {
+            waitingByBusiness.remove(businessId);
+        }
+    }
+
+    private void run(ReportJob job) {
+        job.status = ReportJobStatus.RUNNING;
+        try {
+            job.file = Files.createTempFile("analytics-report-", ".csv");
+            writeReport(job);
+            job.finishedAt = Instant.now();
+            job.status = ReportJobStatus.COMPLETED;
+        } catch (Exception e) {
+            logger.warn("Analytics report {} for business {} failed", job.id, job.businessId, e);
+            deleteFile(job);
+            job.error = "Report could not be generated";
+            job.finishedAt = Instant.now();
+            job.status = ReportJobStatus.FAILED;
+        } finally {
+            synchronized (this) {
+                unfinished--;
+                runningByBusiness.computeIfPresent(job.businessId, (id, running) -> running > 1 ? running - 1 : null);
+                if (waitingByBusiness.containsKey(job.businessId)) {
+                    startWaiting(job.businessId);
+                }
+            }
+        }
+    }
+
+    // Rows go straight from the database cursor to the file, followed by a row of period totals
+    private void writeReport(ReportJob job) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(job.file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            long[] totals = readOnlyTransaction.execute(status -> {
+                try (Stream<DailyReportRow> rows = statsRepository.streamReportRows(
+                        job.businessId, job.startDate, job.endDate)) {
+                    long[] sums = new long[REPORT_VALUES];
+                    Iterator<DailyReportRow> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        DailyReportRow row = iterator.next();
+                        long[] values = {row.pendingCount(), row.confirmedCount(), row.completedCount(),
+                                row.cancelledCount(), row.noShowCount(), row.revenueCents(), row.newBookings(),
+                                row.newCustomers(), row.returningCustomers()};
+                        writeCsvRow(writer, row.date().toString(), values, REPORT_VALUES);
+                        for (int i = 0; i < RETURNING_CUSTOMERS_VALUE; i++) {
+                            sums[i] += values[i];
+                        }
+                    }
+                    return sums;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writeCsvRow(writer, "total", totals, RETURNING_CUSTOMERS_VALUE);
+        }
+    }
+
+    // Values are in CSV_HEADER order after the date, with revenue in cents; columns
+    // from the given count on are left empty
+    private static void writeCsvRow(Writer writer, String date, long[] values, int count) throws IOException {
+        writer.write(date);
+        for (int i = 0; i < values.length; i++) {
+            writer.write(',');
+            if (i < count) {
+                writer.write(i == REVENUE_VALUE ? Cents.toAmount(values[i]).toPlainString() : Long.toString(values[i]));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private void deleteFile(ReportJob job) {
+        if (job.file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(job.file);
+        } catch (IOException e) {
+            logger.warn("Could not delete analytics report file {}", job.file, e);
+        }
+    }
+
+    private static final class ReportJob {
+        private final String id;
+        private final Long businessId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final Instant submittedAt;
+
+        // Written by the report thread before status, read after it
+        private volatile Path file;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+
+        private ReportJob(String id, Long businessId, LocalDate startDate, LocalDate endDate, Instant submittedAt) {
+            this.id = id;
+            this.businessId = businessId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.submittedAt = submittedAt;
+        }
+
+        private AnalyticsReportJobDto toDto() {
+            return new AnalyticsReportJobDto(id, businessId, startDate, endDate, status, submittedAt, finishedAt, error);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.zentra.api.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zentra.api.dto.AppointmentDto;
+import com.zentra.api.dto.ExportFormat;
+import com.zentra.api.repository.AppointmentRepository;
+import com.zentra.api.repository.BusinessProfileRepository;
+import com.zentra.api.service.AppointmentExportService;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Component
+public class AppointmentExportServiceImpl implements AppointmentExportService {
+
+    // Rows written between flushes, matching the JDBC fetch size
+    private static final int FLUSH_EVERY_ROWS = 500;
+    
+    private static final String CSV_HEADER = "id,date,start_time,end_time,duration_minutes,status,service,staff,"
+            + "customer,customer_email,customer_phone,price,notes,cancellation_reason";
+
+    private final AppointmentRepository appointmentRepository;
+    private final BusinessProfileRepository businessProfileRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public AppointmentExportServiceImpl(
+            AppointmentRepository appointmentRepository,
+            BusinessProfileRepository businessProfileRepository,
+            ObjectMapper objectMapper) {
+        this.appointmentRepository = appointmentRepository;
+        this.businessProfileRepository = businessProfileRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // The stream is backed by a server-side cursor, which only lives as long as the
+    // transaction. Rows are DTO projections, so nothing piles up in the persistence context.
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBusinessAppointments(Long businessId, ExportFormat format, OutputStream out) throws IOException {
+        if (!businessProfileRepository.existsById(businessId)) {
+            throw new EntityNotFoundException("Business not found");
+        }
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        
+        try (Stream<AppointmentDto> appointments = appointmentRepository.streamDtosByBusinessId(businessId)) {
+            int rows = 0;
+            Iterator<AppointmentDto> iterator = appointments.iterator();
+            while (iterator.hasNext()) {
+                AppointmentDto appointment = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, appointment);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(appointment));
+                }
+                writer.write('\n');
+                
+                // Push each batch to the client while the cursor fetches the next one
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+    
+    private void writeCsvRow(Writer writer, AppointmentDto appointment) throws IOException {
+        writer.write(String.join(",",
+                String.valueOf(appointment.getId()),
+                String.valueOf(appointment.getDate()),
+                String.valueOf(appointment.getStartTime()),
+                String.valueOf(appointment.getEndTime()),
+                String.valueOf(appointment.getDurationMinutes()),
+                String.valueOf(appointment.getStatus()),
+                csvField(appointment.getServiceName()),
+                csvField(appointment.getStaffName()),
+                csvField(appointment.getCustomerName()),
+                csvField(appointment.getCustomerEmail()),
+                csvField(appointment.getCustomerPhone()),
+                appointment.getPrice() != null ? appointment.getPrice().toPlainString() : "",
+                csvField(appointment.getNotes()),
+                csvField(appointment.getCancellationReason())));
+    }
+    
+    // Quote fields that contain separators, quotes or line breaks (RFC 4180)
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
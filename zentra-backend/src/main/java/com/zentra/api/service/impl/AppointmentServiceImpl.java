@@ -1,40 +1,84 @@
 package com.zentra.api.service.impl;
 
+import com.zentra.api.analytics.BusinessDailyStatsRollup;
+import com.zentra.api.availability.DaySchedule;
+import com.zentra.api.availability.OccupancyIndex;
+import com.zentra.api.availability.SlotHold;
+import com.zentra.api.availability.SlotHoldRegistry;
 import com.zentra.api.dto.AppointmentDto;
+import com.zentra.api.dto.AppointmentPageDto;
 import com.zentra.api.dto.CreateAppointmentRequest;
+import com.zentra.api.dto.RecurringAppointmentRequest;
+import com.zentra.api.dto.SlotCapacityDto;
+import com.zentra.api.dto.SlotHoldDto;
+import com.zentra.api.dto.SlotHoldRequest;
+import com.zentra.api.event.AppointmentChangedEvent;
+import com.zentra.api.exception.BookingConflictException;
 import com.zentra.api.model.Appointment;
 import com.zentra.api.model.AppointmentStatus;
+import com.zentra.api.model.BusinessHours;
 import com.zentra.api.model.BusinessProfile;
+import com.zentra.api.model.Staff;
 import com.zentra.api.model.User;
 import com.zentra.api.repository.AppointmentRepository;
 import com.zentra.api.repository.BusinessProfileRepository;
 import com.zentra.api.repository.ServiceRepository;
+import com.zentra.api.repository.StaffRepository;
 import com.zentra.api.repository.UserRepository;
 import com.zentra.api.repository.BusinessHoursRepository;
 import com.zentra.api.service.AppointmentService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.time.DayOfWeek;
 import java.util.ArrayList;
+import java.util.Base64;
 
 @Component
 public class AppointmentServiceImpl implements AppointmentService {
 
+    private static final int MAX_AVAILABILITY_RANGE_DAYS = 60;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
     private final BusinessProfileRepository businessProfileRepository;
     private final ServiceRepository serviceRepository;
     private final BusinessHoursRepository businessHoursRepository;
+    private final StaffRepository staffRepository;
+    private final OccupancyIndex occupancyIndex;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final BusinessDailyStatsRollup dailyStatsRollup;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultHoldMinutes;
+    private final Cache<String, AppointmentDto> idempotentResponses;
 
     @Autowired
     public AppointmentServiceImpl(
@@ -42,17 +86,178 @@ public class AppointmentServiceImpl implements AppointmentService {
             UserRepository userRepository,
             BusinessProfileRepository businessProfileRepository,
             ServiceRepository serviceRepository,
-            BusinessHoursRepository businessHoursRepository) {
+            BusinessHoursRepository businessHoursRepository,
+            StaffRepository staffRepository,
+            OccupancyIndex occupancyIndex,
+            SlotHoldRegistry slotHoldRegistry,
+            BusinessDailyStatsRollup dailyStatsRollup,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${zentra.holds.default-minutes:10}") int defaultHoldMinutes,
+            @Value("${zentra.idempotency.max-entries:10000}") long idempotencyMaxEntries,
+            @Value("${zentra.idempotency.ttl-minutes:1440}") long idempotencyTtlMinutes) {
         this.appointmentRepository = appointmentRepository;
         this.userRepository = userRepository;
         this.businessProfileRepository = businessProfileRepository;
         this.serviceRepository = serviceRepository;
         this.businessHoursRepository = businessHoursRepository;
+        this.staffRepository = staffRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.dailyStatsRollup = dailyStatsRollup;
+        this.eventPublisher = eventPublisher;
+        this.defaultHoldMinutes = defaultHoldMinutes;
+        this.idempotentResponses = Caffeine.newBuilder()
+                .maximumSize(idempotencyMaxEntries)
+                .expireAfterWrite(Duration.ofMinutes(idempotencyTtlMinutes))
+                .build();
     }
 
     @Override
     @Transactional
     public AppointmentDto createAppointment(CreateAppointmentRequest request) {
+        return bookAppointment(request, null, null);
+    }
+
+    @Override
+    @Transactional
+    public AppointmentDto createAppointment(CreateAppointmentRequest request, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return bookAppointment(request, null, null);
+        }
+        
+        // Retries are answered from memory, then from the stored key after a restart
+        AppointmentDto cached = idempotentResponses.getIfPresent(idempotencyCacheKey(request.getCustomerId(), idempotencyKey));
+        if (cached != null) {
+            return requireSameRequest(request, cached);
+        }
+        Optional<Appointment> existing = appointmentRepository
+                .findByCustomerIdAndIdempotencyKey(request.getCustomerId(), idempotencyKey);
+        if (existing.isPresent()) {
+            return rememberIdempotentResponse(idempotencyKey, requireSameRequest(request, convertToDto(existing.get())));
+        }
+        return bookAppointment(request, null, idempotencyKey);
+    }
+
+    @Override
+    @Transactional
+    public List<AppointmentDto> createRecurringAppointments(RecurringAppointmentRequest request) {
+        User customer = userRepository.findById(request.getCustomerId())
+                .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
+
+        BusinessProfile businessProfile = businessProfileRepository.findById(request.getBusinessId())
+                .orElseThrow(() -> new EntityNotFoundException("Business not found"));
+
+        com.zentra.api.model.Service service = serviceRepository.findById(request.getServiceId())
+                .orElseThrow(() -> new EntityNotFoundException("Service not found"));
+        
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < request.getOccurrences(); i++) {
+            long step = (long) i * request.getInterval();
+            dates.add(switch (request.getFrequency()) {
+                case DAILY -> request.getStartDate().plusDays(step);
+                case WEEKLY -> request.getStartDate().plusWeeks(step);
+                case MONTHLY -> request.getStartDate().plusMonths(step);
+            });
+        }
+        LocalTime endTime = request.getStartTime().plusMinutes(request.getDurationMinutes());
+        
+        // All days are locked in one statement and read back with one query;
+        // a single conflicting occurrence rejects the whole series
+        Map<LocalDate, DaySchedule> schedules = lockBusinessDays(businessProfile, dates);
+        List<Staff> qualified = qualifiedStaff(businessProfile, service);
+        
+        List<Appointment> appointments = new ArrayList<>();
+        for (LocalDate date : dates) {
+            Appointment appointment = new Appointment();
+            appointment.setCustomer(customer);
+            appointment.setBusiness(businessProfile);
+            appointment.setService(service);
+            appointment.setDate(date);
+            appointment.setStartTime(request.getStartTime());
+            appointment.setEndTime(endTime);
+            try {
+                appointment.setStaff(assignStaff(qualified, schedules.get(date), request.getStartTime(), endTime,
+                        request.getStaffId(), slotHoldRegistry.holdsFor(businessProfile.getId(), date)));
+            } catch (BookingConflictException e) {
+                throw new BookingConflictException(e.getMessage() + " on " + date);
+            }
+            appointment.setDurationMinutes(request.getDurationMinutes());
+            appointment.setPrice(service.getPrice());
+            appointment.setStatus(AppointmentStatus.PENDING);
+            appointment.setNotes(request.getNotes());
+            appointments.add(appointment);
+        }
+        
+        // Pooled sequence ids let Hibernate send these as JDBC batches
+        appointments.forEach(dailyStatsRollup::recordChange);
+        eventPublisher.publishEvent(new AppointmentChangedEvent(businessProfile.getId()));
+        List<Appointment> savedAppointments = appointmentRepository.saveAll(appointments);
+        savedAppointments.forEach(occupancyIndex::recordBooked);
+        return savedAppointments.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public SlotHoldDto holdSlot(SlotHoldRequest request) {
+        userRepository.findById(request.getCustomerId())
+                .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
+        
+        BusinessProfile business = businessProfileRepository.findById(request.getBusinessId())
+                .orElseThrow(() -> new EntityNotFoundException("Business not found"));
+        
+        com.zentra.api.model.Service service = serviceRepository.findById(request.getServiceId())
+                .orElseThrow(() -> new EntityNotFoundException("Service not found"));
+        
+        LocalTime startTime = request.getStartTime();
+        LocalTime endTime = startTime.plusMinutes(service.getDurationMinutes());
+        int holdMinutes = request.getHoldMinutes() != null ? request.getHoldMinutes() : defaultHoldMinutes;
+        Instant expiresAt = Instant.now().plusSeconds(holdMinutes * 60L);
+        DaySchedule schedule = occupancyIndex.getDay(business, request.getDate());
+        List<Staff> qualified = qualifiedStaff(business, service);
+        
+        // Capacity is checked against the day's live holds atomically with placing this one;
+        // the allocator runs under the registry's lock, so it must not touch the database
+        SlotHold hold = slotHoldRegistry.place(business.getId(), request.getDate(), holds -> {
+            Staff staff = assignStaff(qualified, schedule, startTime, endTime, request.getStaffId(), holds);
+            return new SlotHold(UUID.randomUUID().toString(), business.getId(), service.getId(),
+                    request.getCustomerId(), staff != null ? staff.getId() : null, request.getDate(),
+                    startTime, endTime, service.getDurationMinutes(), expiresAt);
+        });
+        return convertToDto(hold);
+    }
+
+    @Override
+    @Transactional
+    public AppointmentDto confirmHold(String holdId, String notes) {
+        SlotHold hold = slotHoldRegistry.get(holdId)
+                .orElseThrow(() -> new EntityNotFoundException("Hold not found or expired"));
+        
+        CreateAppointmentRequest request = new CreateAppointmentRequest();
+        request.setCustomerId(hold.customerId());
+        request.setBusinessId(hold.businessId());
+        request.setServiceId(hold.serviceId());
+        request.setDate(hold.date());
+        request.setStartTime(hold.startTime());
+        request.setDurationMinutes(hold.durationMinutes());
+        request.setStaffId(hold.staffId());
+        request.setNotes(notes);
+        
+        AppointmentDto appointmentDto = bookAppointment(request, holdId, null);
+        // Until the booking commits the hold keeps the slot; a rollback leaves it in place
+        afterCommit(() -> slotHoldRegistry.release(holdId));
+        return appointmentDto;
+    }
+
+    @Override
+    public void releaseHold(String holdId) {
+        if (!slotHoldRegistry.release(holdId)) {
+            throw new EntityNotFoundException("Hold not found or expired");
+        }
+    }
+
+    private AppointmentDto bookAppointment(CreateAppointmentRequest request, String confirmedHoldId,
+                                           String idempotencyKey) {
         User customer = userRepository.findById(request.getCustomerId())
                 .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
 
@@ -73,139 +278,108 @@ public class AppointmentServiceImpl implements AppointmentService {
         LocalTime endTime = request.getStartTime().plusMinutes(request.getDurationMinutes());
         appointment.setEndTime(endTime);
         
+        // Bookings for the same business day are serialized; the schedule is read under the lock
+        // Other customers' holds count as taken; the hold being confirmed does not
+        DaySchedule schedule = lockBusinessDay(businessProfile, request.getDate());
+        
+        // A concurrent duplicate that got the lock first has committed by now
+        if (idempotencyKey != null) {
+            Optional<Appointment> existing = appointmentRepository
+                    .findByCustomerIdAndIdempotencyKey(customer.getId(), idempotencyKey);
+            if (existing.isPresent()) {
+                return rememberIdempotentResponse(idempotencyKey,
+                        requireSameRequest(request, convertToDto(existing.get())));
+            }
+        }
+        
+        List<SlotHold> holds = slotHoldRegistry.holdsFor(businessProfile.getId(), request.getDate()).stream()
+                .filter(hold -> !hold.id().equals(confirmedHoldId))
+                .toList();
+        appointment.setStaff(assignStaff(businessProfile, service, schedule,
+                request.getStartTime(), endTime, request.getStaffId(), holds));
+        
         appointment.setDurationMinutes(request.getDurationMinutes());
         appointment.setPrice(service.getPrice());
         appointment.setStatus(AppointmentStatus.PENDING);
         appointment.setNotes(request.getNotes());
+        appointment.setIdempotencyKey(idempotencyKey);
 
+        recordChange(appointment);
         Appointment savedAppointment = appointmentRepository.save(appointment);
-        return convertToDto(savedAppointment);
+        occupancyIndex.recordBooked(savedAppointment);
+        AppointmentDto appointmentDto = convertToDto(savedAppointment);
+        return idempotencyKey != null ? rememberIdempotentResponse(idempotencyKey, appointmentDto) : appointmentDto;
     }
 
     @Override
     public AppointmentDto getAppointmentById(Long id) {
-        Appointment appointment = appointmentRepository.findById(id)
+        return appointmentRepository.findDtoById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Appointment not found"));
-        return convertToDto(appointment);
     }
 
     @Override
-    public List<AppointmentDto> getAppointmentsByCustomerId(Long customerId) {
-        User customer = userRepository.findById(customerId)
-                .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
-        
-        List<Appointment> appointments = appointmentRepository.findByCustomer(customer);
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public AppointmentPageDto getAppointmentsByCustomerId(Long customerId, String cursor, int limit) {
+        return toPage(limit, requireCustomer(customerId, cursor == null
+                ? appointmentRepository.findDtoPageByCustomerId(customerId, pageOf(limit))
+                : customerPageBefore(customerId, decodeCursor(cursor), limit)));
     }
 
     @Override
-    public List<AppointmentDto> getAppointmentsByBusinessId(Long businessId) {
-        BusinessProfile businessProfile = businessProfileRepository.findById(businessId)
-                .orElseThrow(() -> new EntityNotFoundException("Business not found"));
-        
-        List<Appointment> appointments = appointmentRepository.findByBusiness(businessProfile);
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public AppointmentPageDto getAppointmentsByBusinessId(Long businessId, String cursor, int limit) {
+        return toPage(limit, requireBusiness(businessId, cursor == null
+                ? appointmentRepository.findDtoPageByBusinessId(businessId, pageOf(limit))
+                : businessPageBefore(businessId, decodeCursor(cursor), limit)));
     }
 
     @Override
     public List<AppointmentDto> getAppointmentsByStatus(AppointmentStatus status) {
-        List<Appointment> appointments = appointmentRepository.findByStatus(status);
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return appointmentRepository.findDtosByStatus(status);
     }
 
     @Override
     public List<AppointmentDto> getAppointmentsByCustomerIdAndStatus(Long customerId, AppointmentStatus status) {
-        User customer = userRepository.findById(customerId)
-                .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
-        
-        List<Appointment> appointments = appointmentRepository.findByCustomerAndStatus(customer, status);
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return requireCustomer(customerId, appointmentRepository.findDtosByCustomerIdAndStatus(customerId, status));
     }
 
     @Override
     public List<AppointmentDto> getAppointmentsByBusinessIdAndStatus(Long businessId, AppointmentStatus status) {
-        BusinessProfile businessProfile = businessProfileRepository.findById(businessId)
-                .orElseThrow(() -> new EntityNotFoundException("Business not found"));
-        
-        List<Appointment> appointments = appointmentRepository.findByBusinessAndStatus(businessProfile, status);
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return requireBusiness(businessId, appointmentRepository.findDtosByBusinessIdAndStatus(businessId, status));
     }
 
     @Override
     public List<AppointmentDto> getAppointmentsByDate(LocalDate date) {
-        List<Appointment> appointments = appointmentRepository.findByDate(date);
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return appointmentRepository.findDtosByDate(date);
     }
 
     @Override
     public List<AppointmentDto> getAppointmentsByBusinessIdAndDate(Long businessId, LocalDate date) {
-        BusinessProfile businessProfile = businessProfileRepository.findById(businessId)
-                .orElseThrow(() -> new EntityNotFoundException("Business not found"));
-        
-        List<Appointment> appointments = appointmentRepository.findByBusinessAndDate(businessProfile, date);
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return requireBusiness(businessId, appointmentRepository.findDtosByBusinessIdAndDate(businessId, date));
     }
 
     @Override
     public List<AppointmentDto> getUpcomingAppointmentsByCustomerId(Long customerId) {
-        User customer = userRepository.findById(customerId)
-                .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
-        
-        List<Appointment> appointments = appointmentRepository
-                .findByCustomerAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(customer, LocalDate.now());
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return requireCustomer(customerId,
+                appointmentRepository.findUpcomingDtosByCustomerId(customerId, LocalDate.now()));
     }
 
     @Override
     public List<AppointmentDto> getUpcomingAppointmentsByBusinessId(Long businessId) {
-        BusinessProfile businessProfile = businessProfileRepository.findById(businessId)
-                .orElseThrow(() -> new EntityNotFoundException("Business not found"));
-        
-        List<Appointment> appointments = appointmentRepository
-                .findByBusinessAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(businessProfile, LocalDate.now());
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return requireBusiness(businessId,
+                appointmentRepository.findUpcomingDtosByBusinessId(businessId, LocalDate.now()));
     }
 
+    // Everything before today sorts before the (today, 00:00, 0) key, so past
+    // appointments are the same keyset listing started from that cursor
     @Override
-    public List<AppointmentDto> getPastAppointmentsByCustomerId(Long customerId) {
-        User customer = userRepository.findById(customerId)
-                .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
-        
-        List<Appointment> appointments = appointmentRepository
-                .findByCustomerAndDateLessThanOrderByDateDescStartTimeDesc(customer, LocalDate.now());
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public AppointmentPageDto getPastAppointmentsByCustomerId(Long customerId, String cursor, int limit) {
+        PageCursor after = cursor == null ? PageCursor.startOfToday() : decodeCursor(cursor);
+        return toPage(limit, requireCustomer(customerId, customerPageBefore(customerId, after, limit)));
     }
 
     @Override
-    public List<AppointmentDto> getPastAppointmentsByBusinessId(Long businessId) {
-        BusinessProfile businessProfile = businessProfileRepository.findById(businessId)
-                .orElseThrow(() -> new EntityNotFoundException("Business not found"));
-        
-        List<Appointment> appointments = appointmentRepository
-                .findByBusinessAndDateLessThanOrderByDateDescStartTimeDesc(businessProfile, LocalDate.now());
-        return appointments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public AppointmentPageDto getPastAppointmentsByBusinessId(Long businessId, String cursor, int limit) {
+        PageCursor after = cursor == null ? PageCursor.startOfToday() : decodeCursor(cursor);
+        return toPage(limit, requireBusiness(businessId, businessPageBefore(businessId, after, limit)));
     }
 
     @Override
@@ -214,8 +388,23 @@ public class AppointmentServiceImpl implements AppointmentService {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Appointment not found"));
         
+        AppointmentStatus previousStatus = appointment.getStatus();
+        if (previousStatus == AppointmentStatus.CANCELLED && status != AppointmentStatus.CANCELLED) {
+            // Re-activating takes the slot again, so it has to be free
+            DaySchedule schedule = lockBusinessDay(appointment.getBusiness(), appointment.getDate());
+            reassignStaff(appointment, schedule, appointment.getStartTime(), appointment.getEndTime(),
+                    slotHoldRegistry.holdsFor(appointment.getBusiness().getId(), appointment.getDate()));
+        }
+        recordChange(appointment);
         appointment.setStatus(status);
         Appointment updatedAppointment = appointmentRepository.save(appointment);
+        
+        // Keep the occupancy index in line when moving into or out of CANCELLED
+        if (status == AppointmentStatus.CANCELLED && previousStatus != AppointmentStatus.CANCELLED) {
+            occupancyIndex.recordReleased(appointment.getBusiness().getId(), appointment.getDate(), appointment.getId());
+        } else if (status != AppointmentStatus.CANCELLED && previousStatus == AppointmentStatus.CANCELLED) {
+            occupancyIndex.recordBooked(updatedAppointment);
+        }
         return convertToDto(updatedAppointment);
     }
 
@@ -225,11 +414,13 @@ public class AppointmentServiceImpl implements AppointmentService {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Appointment not found"));
         
+        recordChange(appointment);
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointment.setCancelledAt(LocalDateTime.now());
         appointment.setCancellationReason(reason);
         
         Appointment cancelledAppointment = appointmentRepository.save(appointment);
+        occupancyIndex.recordReleased(appointment.getBusiness().getId(), appointment.getDate(), appointment.getId());
         return convertToDto(cancelledAppointment);
     }
 
@@ -241,22 +432,36 @@ public class AppointmentServiceImpl implements AppointmentService {
         
         LocalTime newStartTime = LocalTime.parse(newStartTimeStr, DateTimeFormatter.ofPattern("HH:mm"));
         LocalTime newEndTime = newStartTime.plusMinutes(appointment.getDurationMinutes());
+        LocalDate previousDate = appointment.getDate();
+        
+        if (appointment.getStatus() != AppointmentStatus.CANCELLED) {
+            DaySchedule schedule = lockBusinessDay(appointment.getBusiness(), newDate);
+            schedule.release(appointment.getId());
+            reassignStaff(appointment, schedule, newStartTime, newEndTime,
+                    slotHoldRegistry.holdsFor(appointment.getBusiness().getId(), newDate));
+        }
         
+        recordChange(appointment);
         appointment.setDate(newDate);
         appointment.setStartTime(newStartTime);
         appointment.setEndTime(newEndTime);
         
         Appointment rescheduledAppointment = appointmentRepository.save(appointment);
+        occupancyIndex.recordReleased(appointment.getBusiness().getId(), previousDate, appointment.getId());
+        if (appointment.getStatus() != AppointmentStatus.CANCELLED) {
+            occupancyIndex.recordBooked(rescheduledAppointment);
+        }
         return convertToDto(rescheduledAppointment);
     }
 
     @Override
     @Transactional
     public void deleteAppointment(Long id) {
-        if (!appointmentRepository.existsById(id)) {
-            throw new EntityNotFoundException("Appointment not found");
-        }
-        appointmentRepository.deleteById(id);
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Appointment not found"));
+        recordChange(appointment);
+        appointmentRepository.delete(appointment);
+        occupancyIndex.recordReleased(appointment.getBusiness().getId(), appointment.getDate(), id);
     }
 
     @Override
@@ -276,6 +481,70 @@ public class AppointmentServiceImpl implements AppointmentService {
         var businessHours = businessHoursRepository.findByBusinessAndDayOfWeek(business, dayOfWeek)
                 .orElseThrow(() -> new EntityNotFoundException("Business hours not found for this day"));
         
+        // Schedule of this business on this date (cancelled appointments are not included)
+        DaySchedule schedule = occupancyIndex.getDay(business, date);
+        
+        return toAvailableSlots(generateSlotCapacities(businessHours, service.getDurationMinutes(), schedule,
+                qualifiedStaffIds(business, service), slotHoldRegistry.holdsFor(businessId, date)));
+    }
+
+    @Override
+    public List<SlotCapacityDto> getSlotCapacities(Long businessId, Long serviceId, LocalDate date) {
+        BusinessProfile business = businessProfileRepository.findById(businessId)
+                .orElseThrow(() -> new EntityNotFoundException("Business not found"));
+        
+        com.zentra.api.model.Service service = serviceRepository.findById(serviceId)
+                .orElseThrow(() -> new EntityNotFoundException("Service not found"));
+        
+        BusinessHours businessHours = businessHoursRepository.findByBusinessAndDayOfWeek(business, date.getDayOfWeek())
+                .orElseThrow(() -> new EntityNotFoundException("Business hours not found for this day"));
+        
+        return generateSlotCapacities(businessHours, service.getDurationMinutes(),
+                occupancyIndex.getDay(business, date), qualifiedStaffIds(business, service),
+                slotHoldRegistry.holdsFor(businessId, date));
+    }
+
+    @Override
+    public Map<LocalDate, List<String>> getAvailableTimeSlotsForRange(Long businessId, Long serviceId,
+                                                                      LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_AVAILABILITY_RANGE_DAYS) {
+            throw new IllegalArgumentException(
+                    "Availability range cannot exceed " + MAX_AVAILABILITY_RANGE_DAYS + " days");
+        }
+        
+        BusinessProfile business = businessProfileRepository.findById(businessId)
+                .orElseThrow(() -> new EntityNotFoundException("Business not found"));
+        
+        com.zentra.api.model.Service service = serviceRepository.findById(serviceId)
+                .orElseThrow(() -> new EntityNotFoundException("Service not found"));
+        
+        // One hours fetch for the whole week and one appointment query for the whole range
+        Map<DayOfWeek, BusinessHours> hoursByDay = new EnumMap<>(DayOfWeek.class);
+        businessHoursRepository.findByBusiness(business)
+                .forEach(hours -> hoursByDay.put(hours.getDayOfWeek(), hours));
+        Map<LocalDate, DaySchedule> scheduleByDate = occupancyIndex.getDays(business, startDate, endDate);
+        List<Long> qualifiedStaffIds = qualifiedStaffIds(business, service);
+        
+        // Days without business hours are reported as having no slots
+        Map<LocalDate, List<String>> availableSlots = new LinkedHashMap<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            BusinessHours businessHours = hoursByDay.get(date.getDayOfWeek());
+            List<String> slots = businessHours == null
+                    ? new ArrayList<>()
+                    : toAvailableSlots(generateSlotCapacities(businessHours, service.getDurationMinutes(),
+                            scheduleByDate.get(date), qualifiedStaffIds, slotHoldRegistry.holdsFor(businessId, date)));
+            availableSlots.put(date, slots);
+        }
+        
+        return availableSlots;
+    }
+    
+    private List<SlotCapacityDto> generateSlotCapacities(BusinessHours businessHours, int durationMinutes,
+                                                         DaySchedule schedule, List<Long> qualifiedStaffIds,
+                                                         List<SlotHold> holds) {
         // If business is closed on this day, return empty list
         if (!businessHours.isOpen()) {
             return new ArrayList<>();
@@ -285,17 +554,8 @@ public class AppointmentServiceImpl implements AppointmentService {
         LocalTime openTime = businessHours.getOpenTime();
         LocalTime closeTime = businessHours.getCloseTime();
         
-        // Get all existing appointments for this business on this date
-        List<Appointment> existingAppointments = appointmentRepository.findByBusinessAndDate(business, date);
-        
-        // Filter out cancelled appointments
-        existingAppointments = existingAppointments.stream()
-                .filter(appt -> appt.getStatus() != AppointmentStatus.CANCELLED)
-                .toList();
-        
         // Generate all possible time slots based on service duration
-        int durationMinutes = service.getDurationMinutes();
-        List<String> availableSlots = new ArrayList<>();
+        List<SlotCapacityDto> slots = new ArrayList<>();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
         
         // Start at opening time and increment by service duration
@@ -306,23 +566,216 @@ public class AppointmentServiceImpl implements AppointmentService {
             final LocalTime slotStart = currentTime;
             final LocalTime slotEnd = currentTime.plusMinutes(durationMinutes);
             
-            // Check if the slot conflicts with any existing appointment
-            boolean isAvailable = existingAppointments.stream()
-                    .noneMatch(appt -> {
-                        // Check if this appointment overlaps with the current slot
-                        return (slotStart.isBefore(appt.getEndTime()) && 
-                                slotEnd.isAfter(appt.getStartTime()));
-                    });
-            
-            if (isAvailable) {
-                availableSlots.add(currentTime.format(formatter));
-            }
+            // Remaining capacity across the qualified staff timelines, net of held slots
+            int capacity = schedule.remainingCapacity(qualifiedStaffIds, slotStart, slotEnd, holds);
+            slots.add(new SlotCapacityDto(currentTime.format(formatter), capacity));
             
             // Move to next slot (use smaller increments like 15 or 30 minutes depending on your need)
             currentTime = currentTime.plusMinutes(30); // Adjust as needed
         }
         
-        return availableSlots;
+        return slots;
+    }
+    
+    private List<String> toAvailableSlots(List<SlotCapacityDto> slots) {
+        return slots.stream()
+                .filter(slot -> slot.getCapacity() > 0)
+                .map(SlotCapacityDto::getTime)
+                .collect(Collectors.toList());
+    }
+    
+    // Active staff of the business who can perform the service, in a stable order
+    private List<Staff> qualifiedStaff(BusinessProfile business, com.zentra.api.model.Service service) {
+        return staffRepository.findByBusinessAndServicesContaining(business, service).stream()
+                .filter(Staff::isActive)
+                .sorted(Comparator.comparing(Staff::getId))
+                .collect(Collectors.toList());
+    }
+    
+    private List<Long> qualifiedStaffIds(BusinessProfile business, com.zentra.api.model.Service service) {
+        return qualifiedStaff(business, service).stream()
+                .map(Staff::getId)
+                .collect(Collectors.toList());
+    }
+    
+    private List<AppointmentDto> customerPageBefore(Long customerId, PageCursor cursor, int limit) {
+        return appointmentRepository.findDtoPageByCustomerIdBefore(customerId,
+                cursor.date(), cursor.startTime(), cursor.id(), pageOf(limit));
+    }
+    
+    private List<AppointmentDto> businessPageBefore(Long businessId, PageCursor cursor, int limit) {
+        return appointmentRepository.findDtoPageByBusinessIdBefore(businessId,
+                cursor.date(), cursor.startTime(), cursor.id(), pageOf(limit));
+    }
+    
+    // One extra row is fetched to tell whether another page follows
+    private static PageRequest pageOf(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.ofSize(limit + 1);
+    }
+    
+    private static AppointmentPageDto toPage(int limit, List<AppointmentDto> rows) {
+        if (rows.size() <= limit) {
+            return new AppointmentPageDto(rows, null);
+        }
+        List<AppointmentDto> appointments = new ArrayList<>(rows.subList(0, limit));
+        return new AppointmentPageDto(appointments, encodeCursor(appointments.get(limit - 1)));
+    }
+    
+    // Cursors are the (date, startTime, id) key of the last row returned, kept opaque to clients
+    private static String encodeCursor(AppointmentDto last) {
+        String key = last.getDate() + "|" + last.getStartTime() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static PageCursor decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new PageCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    // Listings are a single projection query; the owner is only looked up when
+    // the result is empty, to tell an unknown id apart from an empty list
+    private List<AppointmentDto> requireCustomer(Long customerId, List<AppointmentDto> appointments) {
+        if (appointments.isEmpty() && !userRepository.existsById(customerId)) {
+            throw new EntityNotFoundException("Customer not found");
+        }
+        return appointments;
+    }
+    
+    private List<AppointmentDto> requireBusiness(Long businessId, List<AppointmentDto> appointments) {
+        if (appointments.isEmpty() && !businessProfileRepository.existsById(businessId)) {
+            throw new EntityNotFoundException("Business not found");
+        }
+        return appointments;
+    }
+    
+    private static String idempotencyCacheKey(Long customerId, String idempotencyKey) {
+        return customerId + ":" + idempotencyKey;
+    }
+    
+    // A key replays only the request it was first used with; reusing it for a
+    // different booking is a client error rather than a silent replay
+    private static AppointmentDto requireSameRequest(CreateAppointmentRequest request, AppointmentDto original) {
+        boolean same = request.getBusinessId().equals(original.getBusinessId())
+                && request.getServiceId().equals(original.getServiceId())
+                && request.getDate().equals(original.getDate())
+                && request.getStartTime().equals(original.getStartTime())
+                && request.getDurationMinutes() == original.getDurationMinutes()
+                && (request.getStaffId() == null || request.getStaffId().equals(original.getStaffId()))
+                && Objects.equals(request.getNotes(), original.getNotes());
+        if (!same) {
+            throw new IllegalStateException("Idempotency key was already used for a different request");
+        }
+        return original;
+    }
+    
+    // Call before changing an appointment, inside the transaction making the change
+    private void recordChange(Appointment appointment) {
+        dailyStatsRollup.recordChange(appointment);
+        eventPublisher.publishEvent(new AppointmentChangedEvent(appointment.getBusiness().getId()));
+    }
+
+    // Cache the response once the transaction has committed, so a rollback is never replayed
+    private AppointmentDto rememberIdempotentResponse(String idempotencyKey, AppointmentDto appointmentDto) {
+        String cacheKey = idempotencyCacheKey(appointmentDto.getCustomerId(), idempotencyKey);
+        afterCommit(() -> idempotentResponses.put(cacheKey, appointmentDto));
+        return appointmentDto;
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    // Serialize bookings on (business, date) with a transaction-scoped advisory
+    // lock, then read that day's schedule from the database under the lock.
+    // Other days and other businesses are not blocked.
+    private DaySchedule lockBusinessDay(BusinessProfile business, LocalDate date) {
+        appointmentRepository.lockBusinessDay(Long.hashCode(business.getId()), (int) date.toEpochDay());
+        return occupancyIndex.loadDay(business, date);
+    }
+    
+    // Lock several days of one business and read their schedules from the database under the locks
+    private Map<LocalDate, DaySchedule> lockBusinessDays(BusinessProfile business, List<LocalDate> dates) {
+        List<Integer> dayKeys = dates.stream()
+                .map(date -> (int) date.toEpochDay())
+                .sorted()
+                .collect(Collectors.toList());
+        appointmentRepository.lockBusinessDays(Long.hashCode(business.getId()),
+                dayKeys.get(0), dayKeys.get(dayKeys.size() - 1), dayKeys);
+        return occupancyIndex.loadDays(business, dates);
+    }
+    
+    private Staff assignStaff(BusinessProfile business, com.zentra.api.model.Service service, DaySchedule schedule,
+                              LocalTime startTime, LocalTime endTime, Long requestedStaffId,
+                              List<SlotHold> holds) {
+        return assignStaff(qualifiedStaff(business, service), schedule, startTime, endTime, requestedStaffId, holds);
+    }
+    
+    // The requested staff member if free, otherwise the first free qualified one;
+    // rejects the booking when the slot has no capacity left
+    private Staff assignStaff(List<Staff> qualified, DaySchedule schedule, LocalTime startTime, LocalTime endTime,
+                              Long requestedStaffId, List<SlotHold> holds) {
+        List<Long> qualifiedIds = qualified.stream().map(Staff::getId).collect(Collectors.toList());
+        
+        if (requestedStaffId != null) {
+            Staff staff = qualified.stream()
+                    .filter(candidate -> candidate.getId().equals(requestedStaffId))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Staff member cannot perform this service"));
+            if (!schedule.isStaffFree(staff.getId(), startTime, endTime, holds)) {
+                throw new BookingConflictException("Staff member is already booked for this time");
+            }
+            return staff;
+        }
+        
+        if (schedule.remainingCapacity(qualifiedIds, startTime, endTime, holds) == 0) {
+            throw new BookingConflictException("Time slot is no longer available");
+        }
+        Long freeStaffId = schedule.findFreeStaff(qualifiedIds, startTime, endTime, holds);
+        return qualified.stream()
+                .filter(staff -> staff.getId().equals(freeStaffId))
+                .findFirst()
+                .orElse(null);
+    }
+    
+    // Keep the current staff member when still free, otherwise assign another one
+    private void reassignStaff(Appointment appointment, DaySchedule schedule, LocalTime startTime, LocalTime endTime,
+                               List<SlotHold> holds) {
+        Staff current = appointment.getStaff();
+        if (current != null && current.isActive() && schedule.isStaffFree(current.getId(), startTime, endTime, holds)) {
+            return;
+        }
+        appointment.setStaff(assignStaff(appointment.getBusiness(), appointment.getService(), schedule,
+                startTime, endTime, null, holds));
+    }
+    
+    private SlotHoldDto convertToDto(SlotHold hold) {
+        SlotHoldDto dto = new SlotHoldDto();
+        dto.setHoldId(hold.id());
+        dto.setCustomerId(hold.customerId());
+        dto.setBusinessId(hold.businessId());
+        dto.setServiceId(hold.serviceId());
+        dto.setStaffId(hold.staffId());
+        dto.setDate(hold.date());
+        dto.setStartTime(hold.startTime());
+        dto.setEndTime(hold.endTime());
+        dto.setExpiresAt(hold.expiresAt());
+        return dto;
     }
     
     private AppointmentDto convertToDto(Appointment appointment) {
@@ -342,6 +795,11 @@ public class AppointmentServiceImpl implements AppointmentService {
         dto.setServiceId(appointment.getService().getId());
         dto.setServiceName(appointment.getService().getName());
         
+        if (appointment.getStaff() != null) {
+            dto.setStaffId(appointment.getStaff().getId());
+            dto.setStaffName(appointment.getStaff().getFirstName() + " " + appointment.getStaff().getLastName());
+        }
+        
         dto.setDate(appointment.getDate());
         dto.setStartTime(appointment.getStartTime());
         dto.setEndTime(appointment.getEndTime());
@@ -353,4 +811,10 @@ public class AppointmentServiceImpl implements AppointmentService {
         
         return dto;
     }
+    
+    private record PageCursor(LocalDate date, LocalTime startTime, Long id) {
+        static PageCursor startOfToday() {
+            return new PageCursor(LocalDate.now(), LocalTime.MIDNIGHT, 0L);
+        }
+    }
 } 
\ No newline at end of file
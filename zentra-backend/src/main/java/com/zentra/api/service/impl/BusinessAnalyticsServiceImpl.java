@@ -1,11 +1,18 @@
 package com.zentra.api.service.impl;
 
+import com.zentra.api.analytics.AnalyticsAccumulator;
+import com.zentra.api.analytics.BusinessAnalyticsCache;
+import com.zentra.api.analytics.DailyCounts;
+import com.zentra.api.analytics.PeriodCustomerCounts;
+import com.zentra.api.analytics.PeriodServiceAggregate;
+import com.zentra.api.model.BusinessDailyStats;
+import com.zentra.api.dto.BookingHeatmapDto;
+import com.zentra.api.dto.BusinessAnalyticsComparisonDto;
 import com.zentra.api.dto.BusinessAnalyticsDto;
-import com.zentra.api.model.Appointment;
-import com.zentra.api.model.AppointmentStatus;
+import com.zentra.api.dto.LeadTimeHistogramDto;
 import com.zentra.api.model.BusinessProfile;
-import com.zentra.api.model.Service;
 import com.zentra.api.repository.AppointmentRepository;
+import com.zentra.api.repository.BusinessDailyStatsRepository;
 import com.zentra.api.repository.BusinessProfileRepository;
 import com.zentra.api.repository.ServiceRepository;
 import com.zentra.api.service.BusinessAnalyticsService;
@@ -13,229 +20,264 @@ import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.time.DayOfWeek;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.time.temporal.WeekFields;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Component
 public class BusinessAnalyticsServiceImpl implements BusinessAnalyticsService {
 
+    // Lead time buckets in days: same day, 1, 2, 3, 4-7, 8-14, 15-30, 31-60, 61-90, 91-180, over 180.
+    // Keep in step with BusinessDailyStatsRepository.LEAD_TIME_BUCKET_BOUNDS.
+    private static final int[] LEAD_TIME_BUCKET_START_DAYS = {0, 1, 2, 3, 4, 8, 15, 31, 61, 91, 181};
+    private static final int HOURS_PER_DAY = 24;
+    private static final int MAX_PERIOD_DAYS = 366;
+
     private final AppointmentRepository appointmentRepository;
     private final BusinessProfileRepository businessProfileRepository;
     private final ServiceRepository serviceRepository;
+    private final BusinessDailyStatsRepository statsRepository;
+    private final BusinessAnalyticsCache analyticsCache;
 
     @Autowired
     public BusinessAnalyticsServiceImpl(
             AppointmentRepository appointmentRepository,
             BusinessProfileRepository businessProfileRepository,
-            ServiceRepository serviceRepository) {
+            ServiceRepository serviceRepository,
+            BusinessDailyStatsRepository statsRepository,
+            BusinessAnalyticsCache analyticsCache) {
         this.appointmentRepository = appointmentRepository;
         this.businessProfileRepository = businessProfileRepository;
         this.serviceRepository = serviceRepository;
+        this.statsRepository = statsRepository;
+        this.analyticsCache = analyticsCache;
     }
 
     @Override
     public BusinessAnalyticsDto getBusinessAnalytics(Long businessId) {
         // Default to weekly analytics
-        return getBusinessWeeklyAnalytics(businessId);
+        return getBusinessWeeklyAnalytics(businessId, false);
     }
 
     @Override
-    public BusinessAnalyticsDto getBusinessAnalyticsForPeriod(Long businessId, LocalDate startDate, LocalDate endDate) {
-        BusinessProfile businessProfile = businessProfileRepository.findById(businessId)
-                .orElseThrow(() -> new EntityNotFoundException("Business profile not found"));
+    public BusinessAnalyticsDto getBusinessAnalyticsForPeriod(Long businessId, LocalDate startDate, LocalDate endDate,
+                                                              boolean exact) {
+        requireValidPeriod(startDate, endDate);
+        return cachedAnalytics(businessId, BusinessAnalyticsCache.Period.CUSTOM, exact, startDate, endDate);
+    }
 
-        // Get all appointments within the date range
-        List<Appointment> appointments = appointmentRepository.findByBusinessAndDateBetween(
-                businessProfile, startDate, endDate);
+    @Override
+    public BusinessAnalyticsDto getBusinessDailyAnalytics(Long businessId, LocalDate date, boolean exact) {
+        return cachedAnalytics(businessId, BusinessAnalyticsCache.Period.DAILY, exact, date, date);
+    }
+
+    @Override
+    public BusinessAnalyticsDto getBusinessWeeklyAnalytics(Long businessId, boolean exact) {
+        // Get start and end of current week (Monday to Sunday)
+        LocalDate today = LocalDate.now();
+        LocalDate startOfWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate endOfWeek = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
 
-        return buildAnalyticsDto(businessProfile, appointments, startDate, endDate);
+        return cachedAnalytics(businessId, BusinessAnalyticsCache.Period.WEEKLY, exact, startOfWeek, endOfWeek);
     }
 
     @Override
-    public BusinessAnalyticsDto getBusinessDailyAnalytics(Long businessId, LocalDate date) {
-        BusinessProfile businessProfile = businessProfileRepository.findById(businessId)
-                .orElseThrow(() -> new EntityNotFoundException("Business profile not found"));
+    public BusinessAnalyticsDto getBusinessMonthlyAnalytics(Long businessId, boolean exact) {
+        // Get start and end of current month
+        LocalDate today = LocalDate.now();
+        LocalDate startOfMonth = today.withDayOfMonth(1);
+        LocalDate endOfMonth = today.with(TemporalAdjusters.lastDayOfMonth());
+
+        return cachedAnalytics(businessId, BusinessAnalyticsCache.Period.MONTHLY, exact, startOfMonth, endOfMonth);
+    }
 
-        // Get all appointments for the specific date
-        List<Appointment> appointments = appointmentRepository.findByBusinessAndDate(businessProfile, date);
+    @Override
+    public BusinessAnalyticsDto getBusinessYearlyAnalytics(Long businessId, boolean exact) {
+        // Get start and end of current year
+        LocalDate today = LocalDate.now();
+        LocalDate startOfYear = today.withDayOfYear(1);
+        LocalDate endOfYear = today.with(TemporalAdjusters.lastDayOfYear());
 
-        return buildAnalyticsDto(businessProfile, appointments, date, date);
+        return cachedAnalytics(businessId, BusinessAnalyticsCache.Period.YEARLY, exact, startOfYear, endOfYear);
     }
 
     @Override
-    public BusinessAnalyticsDto getBusinessWeeklyAnalytics(Long businessId) {
-        BusinessProfile businessProfile = businessProfileRepository.findById(businessId)
-                .orElseThrow(() -> new EntityNotFoundException("Business profile not found"));
+    public BusinessAnalyticsComparisonDto getBusinessComparisonForPeriod(
+            Long businessId, LocalDate startDate, LocalDate endDate, boolean exact) {
+        requireValidPeriod(startDate, endDate);
+        LocalDate previousStartDate = startDate.minusDays(ChronoUnit.DAYS.between(startDate, endDate) + 1);
+        return analyticsCache.get(businessId, BusinessAnalyticsCache.Period.CUSTOM_COMPARISON, exact, startDate, endDate,
+                () -> buildComparisonDto(requireBusinessProfile(businessId), previousStartDate, startDate, endDate,
+                        exact));
+    }
 
-        // Get start and end of current week (Monday to Sunday)
+    @Override
+    public BusinessAnalyticsComparisonDto getBusinessWeeklyComparison(Long businessId, boolean exact) {
         LocalDate today = LocalDate.now();
         LocalDate startOfWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
         LocalDate endOfWeek = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
 
-        // Get all appointments for the week
-        List<Appointment> appointments = appointmentRepository.findByBusinessAndDateBetween(
-                businessProfile, startOfWeek, endOfWeek);
-
-        return buildAnalyticsDto(businessProfile, appointments, startOfWeek, endOfWeek);
+        return analyticsCache.get(businessId, BusinessAnalyticsCache.Period.WEEKLY_COMPARISON, exact, startOfWeek, endOfWeek,
+                () -> buildComparisonDto(requireBusinessProfile(businessId), startOfWeek.minusWeeks(1),
+                        startOfWeek, endOfWeek, exact));
     }
 
     @Override
-    public BusinessAnalyticsDto getBusinessMonthlyAnalytics(Long businessId) {
-        BusinessProfile businessProfile = businessProfileRepository.findById(businessId)
-                .orElseThrow(() -> new EntityNotFoundException("Business profile not found"));
-
-        // Get start and end of current month
+    public BusinessAnalyticsComparisonDto getBusinessMonthlyComparison(Long businessId, boolean exact) {
         LocalDate today = LocalDate.now();
         LocalDate startOfMonth = today.withDayOfMonth(1);
         LocalDate endOfMonth = today.with(TemporalAdjusters.lastDayOfMonth());
 
-        // Get all appointments for the month
-        List<Appointment> appointments = appointmentRepository.findByBusinessAndDateBetween(
-                businessProfile, startOfMonth, endOfMonth);
+        return analyticsCache.get(businessId, BusinessAnalyticsCache.Period.MONTHLY_COMPARISON, exact, startOfMonth,
+                endOfMonth, () -> buildComparisonDto(requireBusinessProfile(businessId), startOfMonth.minusMonths(1),
+                        startOfMonth, endOfMonth, exact));
+    }
+
+    @Override
+    public BookingHeatmapDto getBookingHeatmap(Long businessId, LocalDate startDate, LocalDate endDate) {
+        requireBusiness(businessId);
 
-        return buildAnalyticsDto(businessProfile, appointments, startOfMonth, endOfMonth);
+        // Sums the 24-entry start hour histogram of each rollup day into its weekday row
+        int[][] counts = new int[DayOfWeek.values().length][HOURS_PER_DAY];
+        for (DailyCounts day : statsRepository.findHourlyCounts(businessId, startDate, endDate)) {
+            int[] weekday = counts[day.date().getDayOfWeek().ordinal()];
+            int[] hours = day.counts();
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                weekday[hour] += hours[hour];
+            }
+        }
+        return new BookingHeatmapDto(businessId, startDate, endDate, counts);
     }
 
     @Override
-    public BusinessAnalyticsDto getBusinessYearlyAnalytics(Long businessId) {
-        BusinessProfile businessProfile = businessProfileRepository.findById(businessId)
-                .orElseThrow(() -> new EntityNotFoundException("Business profile not found"));
+    public LeadTimeHistogramDto getLeadTimeHistogram(Long businessId, LocalDate startDate, LocalDate endDate) {
+        requireBusiness(businessId);
 
-        // Get start and end of current year
-        LocalDate today = LocalDate.now();
-        LocalDate startOfYear = today.withDayOfYear(1);
-        LocalDate endOfYear = today.with(TemporalAdjusters.lastDayOfYear());
+        long[] counts = new long[LEAD_TIME_BUCKET_START_DAYS.length];
+        for (DailyCounts day : statsRepository.findLeadTimeCounts(businessId, startDate, endDate)) {
+            int[] buckets = day.counts();
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                counts[bucket] += buckets[bucket];
+            }
+        }
+        return new LeadTimeHistogramDto(businessId, startDate, endDate, LEAD_TIME_BUCKET_START_DAYS.clone(), counts);
+    }
+
+    private static void requireValidPeriod(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_PERIOD_DAYS) {
+            throw new IllegalArgumentException("Period cannot exceed " + MAX_PERIOD_DAYS + " days");
+        }
+    }
 
-        // Get all appointments for the year
-        List<Appointment> appointments = appointmentRepository.findByBusinessAndDateBetween(
-                businessProfile, startOfYear, endOfYear);
+    private void requireBusiness(Long businessId) {
+        if (!businessProfileRepository.existsById(businessId)) {
+            throw new EntityNotFoundException("Business profile not found");
+        }
+    }
+
+    private BusinessAnalyticsDto cachedAnalytics(
+            Long businessId,
+            BusinessAnalyticsCache.Period period,
+            boolean exact,
+            LocalDate startDate,
+            LocalDate endDate) {
+        return analyticsCache.get(businessId, period, exact, startDate, endDate,
+                () -> buildAnalyticsDto(requireBusinessProfile(businessId), startDate, endDate, exact));
+    }
 
-        return buildAnalyticsDto(businessProfile, appointments, startOfYear, endOfYear);
+    private BusinessProfile requireBusinessProfile(Long businessId) {
+        return businessProfileRepository.findById(businessId)
+                .orElseThrow(() -> new EntityNotFoundException("Business profile not found"));
     }
 
+    // Reads one business_daily_stats row per day plus per-service totals. Distinct
+    // customers are estimated from the days' sketches, or counted from the
+    // appointments when exact or when some day has no sketch yet.
     private BusinessAnalyticsDto buildAnalyticsDto(
             BusinessProfile businessProfile, 
-            List<Appointment> appointments,
             LocalDate startDate,
-            LocalDate endDate) {
+            LocalDate endDate,
+            boolean exact) {
         
-        BusinessAnalyticsDto dto = new BusinessAnalyticsDto();
-        dto.setBusinessId(businessProfile.getId());
-        dto.setBusinessName(businessProfile.getBusinessName());
-        
-        // Today's date
+        Long businessId = businessProfile.getId();
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator(startDate, endDate, LocalDate.now());
+        statsRepository.findByBusinessIdAndDateBetweenOrderByDate(businessId, startDate, endDate)
+                .forEach(accumulator::add);
+        statsRepository.sumServicesByBusinessId(businessId, startDate, endDate)
+                .forEach(accumulator::add);
+        if (!exact && accumulator.hasCustomerSketches()) {
+            accumulator.estimateCustomers();
+        } else {
+            accumulator.setCustomers(appointmentRepository.countDistinctCustomers(businessId, startDate, endDate));
+        }
+        return accumulator.toDto(businessProfile);
+    }
+
+    // The previous period runs from previousStartDate up to the day before currentStartDate.
+    // Both periods come from one read of each source over the combined range, split by date.
+    private BusinessAnalyticsComparisonDto buildComparisonDto(
+            BusinessProfile businessProfile,
+            LocalDate previousStartDate,
+            LocalDate currentStartDate,
+            LocalDate currentEndDate,
+            boolean exact) {
+
+        Long businessId = businessProfile.getId();
         LocalDate today = LocalDate.now();
-        
-        // Today's appointments
-        int todayAppointments = (int) appointments.stream()
-                .filter(appointment -> appointment.getDate().equals(today))
-                .count();
-        dto.setTotalAppointmentsToday(todayAppointments);
-        
-        // Total appointments for the period
-        dto.setTotalAppointmentsThisWeek(appointments.size());
-        
-        // New bookings for the period (created within the period)
-        int newBookings = (int) appointments.stream()
-                .filter(appointment -> appointment.getCreatedAt().toLocalDate().isAfter(startDate.minusDays(1)) 
-                        && appointment.getCreatedAt().toLocalDate().isBefore(endDate.plusDays(1)))
-                .count();
-        dto.setNewBookingsThisWeek(newBookings);
-        
-        // Cancelled appointments for the period
-        int cancelledAppointments = (int) appointments.stream()
-                .filter(appointment -> appointment.getStatus() == AppointmentStatus.CANCELLED)
-                .count();
-        dto.setCancelledAppointmentsThisWeek(cancelledAppointments);
-        
-        // Revenue for the period (only confirmed and completed appointments)
-        BigDecimal totalRevenue = appointments.stream()
-                .filter(appointment -> appointment.getStatus() == AppointmentStatus.CONFIRMED 
-                        || appointment.getStatus() == AppointmentStatus.COMPLETED)
-                .map(Appointment::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        dto.setRevenueThisWeek(totalRevenue);
-        
-        // Daily revenue for the period
-        Map<String, BigDecimal> dailyRevenue = new LinkedHashMap<>();
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            final LocalDate currentDate = date;
-            BigDecimal revenue = appointments.stream()
-                    .filter(appointment -> appointment.getDate().equals(currentDate)
-                            && (appointment.getStatus() == AppointmentStatus.CONFIRMED 
-                                || appointment.getStatus() == AppointmentStatus.COMPLETED))
-                    .map(Appointment::getPrice)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            dailyRevenue.put(currentDate.toString(), revenue);
+        AnalyticsAccumulator previous = new AnalyticsAccumulator(previousStartDate, currentStartDate.minusDays(1), today);
+        AnalyticsAccumulator current = new AnalyticsAccumulator(currentStartDate, currentEndDate, today);
+
+        for (BusinessDailyStats day : statsRepository.findByBusinessIdAndDateBetweenOrderByDate(
+                businessId, previousStartDate, currentEndDate)) {
+            (day.getDate().isBefore(currentStartDate) ? previous : current).add(day);
         }
-        dto.setDailyRevenue(dailyRevenue);
-        
-        // Appointments by status
-        Map<String, Integer> appointmentsByStatus = new HashMap<>();
-        Arrays.stream(AppointmentStatus.values()).forEach(status -> {
-            int count = (int) appointments.stream()
-                    .filter(appointment -> appointment.getStatus() == status)
-                    .count();
-            appointmentsByStatus.put(status.name(), count);
-        });
-        dto.setAppointmentsByStatus(appointmentsByStatus);
-        
-        // Top services by booking count
-        Map<Service, Integer> serviceCountMap = new HashMap<>();
-        Map<Service, BigDecimal> serviceRevenueMap = new HashMap<>();
-        
-        appointments.forEach(appointment -> {
-            Service service = appointment.getService();
-            serviceCountMap.put(service, serviceCountMap.getOrDefault(service, 0) + 1);
-            
-            if (appointment.getStatus() == AppointmentStatus.CONFIRMED 
-                    || appointment.getStatus() == AppointmentStatus.COMPLETED) {
-                BigDecimal currentRevenue = serviceRevenueMap.getOrDefault(service, BigDecimal.ZERO);
-                serviceRevenueMap.put(service, currentRevenue.add(appointment.getPrice()));
+        for (PeriodServiceAggregate service : statsRepository.sumServicesByBusinessIdAndPeriod(
+                businessId, previousStartDate, currentStartDate, currentEndDate)) {
+            // Each rollup row has at least one booking, so a service without bookings was not in that period
+            if (service.previousBookings() > 0) {
+                previous.add(service.previous());
             }
-        });
-        
-        List<BusinessAnalyticsDto.ServiceStatsDto> topServices = serviceCountMap.entrySet().stream()
-                .map(entry -> {
-                    BusinessAnalyticsDto.ServiceStatsDto statsDto = new BusinessAnalyticsDto.ServiceStatsDto();
-                    statsDto.setServiceId(entry.getKey().getId());
-                    statsDto.setServiceName(entry.getKey().getName());
-                    statsDto.setBookingCount(entry.getValue());
-                    statsDto.setRevenue(serviceRevenueMap.getOrDefault(entry.getKey(), BigDecimal.ZERO));
-                    return statsDto;
-                })
-                .sorted(Comparator.comparing(BusinessAnalyticsDto.ServiceStatsDto::getBookingCount).reversed())
-                .limit(5)  // Top 5 services
-                .collect(Collectors.toList());
-        
-        dto.setTopServices(topServices);
-        
-        // Customer statistics - unique customers
-        Set<Long> customerIds = appointments.stream()
-                .map(appointment -> appointment.getCustomer().getId())
-                .collect(Collectors.toSet());
-        
-        dto.setTotalCustomers(customerIds.size());
-        
-        // New customers (first appointment within the period)
-        Set<Long> newCustomerIds = appointments.stream()
-                .filter(appointment -> appointment.getCreatedAt().toLocalDate().isAfter(startDate.minusDays(1)) 
-                        && appointment.getCreatedAt().toLocalDate().isBefore(endDate.plusDays(1)))
-                .map(appointment -> appointment.getCustomer().getId())
-                .collect(Collectors.toSet());
-        
-        dto.setNewCustomersThisWeek(newCustomerIds.size());
-        
-        // Returning customers
-        Set<Long> returningCustomers = new HashSet<>(customerIds);
-        returningCustomers.removeAll(newCustomerIds);
-        dto.setReturningCustomersThisWeek(returningCustomers.size());
-        
+            if (service.currentBookings() > 0) {
+                current.add(service.current());
+            }
+        }
+        if (!exact && previous.hasCustomerSketches() && current.hasCustomerSketches()) {
+            previous.estimateCustomers();
+            current.estimateCustomers();
+        } else {
+            PeriodCustomerCounts customers = appointmentRepository.countDistinctCustomersByPeriod(
+                    businessId, previousStartDate, currentStartDate, currentEndDate);
+            previous.setCustomers(customers.previous());
+            current.setCustomers(customers.current());
+        }
+
+        return toComparisonDto(current.toDto(businessProfile), previous.toDto(businessProfile));
+    }
+
+    private BusinessAnalyticsComparisonDto toComparisonDto(BusinessAnalyticsDto current, BusinessAnalyticsDto previous) {
+        BusinessAnalyticsComparisonDto dto = new BusinessAnalyticsComparisonDto();
+        dto.setCurrent(current);
+        dto.setPrevious(previous);
+        dto.setAppointmentsChange(current.getTotalAppointmentsThisWeek() - previous.getTotalAppointmentsThisWeek());
+        dto.setNewBookingsChange(current.getNewBookingsThisWeek() - previous.getNewBookingsThisWeek());
+        dto.setCancelledAppointmentsChange(
+                current.getCancelledAppointmentsThisWeek() - previous.getCancelledAppointmentsThisWeek());
+        dto.setRevenueChange(current.getRevenueThisWeek().subtract(previous.getRevenueThisWeek()));
+        dto.setCustomersChange(current.getTotalCustomers() - previous.getTotalCustomers());
+        dto.setNewCustomersChange(current.getNewCustomersThisWeek() - previous.getNewCustomersThisWeek());
+        if (previous.getRevenueThisWeek().signum() != 0) {
+            dto.setRevenueChangePercent(dto.getRevenueChange()
+                    .multiply(BigDecimal.valueOf(100))
+                    .divide(previous.getRevenueThisWeek(), 1, RoundingMode.HALF_UP));
+        }
         return dto;
     }
-} 
\ No newline at end of file
+}
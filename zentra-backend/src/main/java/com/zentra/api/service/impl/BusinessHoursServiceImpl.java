@@ -1,6 +1,7 @@
 package com.zentra.api.service.impl;
 
 import com.zentra.api.dto.BusinessHoursDto;
+import com.zentra.api.event.CatalogChangedEvent;
 import com.zentra.api.model.BusinessHours;
 import com.zentra.api.model.BusinessProfile;
 import com.zentra.api.repository.BusinessHoursRepository;
@@ -8,6 +9,7 @@ import com.zentra.api.repository.BusinessProfileRepository;
 import com.zentra.api.service.BusinessHoursService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,13 +22,16 @@ public class BusinessHoursServiceImpl implements BusinessHoursService {
 
     private final BusinessHoursRepository businessHoursRepository;
     private final BusinessProfileRepository businessProfileRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public BusinessHoursServiceImpl(
             BusinessHoursRepository businessHoursRepository,
-            BusinessProfileRepository businessProfileRepository) {
+            BusinessProfileRepository businessProfileRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.businessHoursRepository = businessHoursRepository;
         this.businessProfileRepository = businessProfileRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -49,6 +54,7 @@ public class BusinessHoursServiceImpl implements BusinessHoursService {
         businessHours.setOpen(businessHoursDto.isOpen());
         
         BusinessHours savedBusinessHours = businessHoursRepository.save(businessHours);
+        eventPublisher.publishEvent(new CatalogChangedEvent(businessProfile.getId()));
         return convertToDto(savedBusinessHours);
     }
 
@@ -91,16 +97,17 @@ public class BusinessHoursServiceImpl implements BusinessHoursService {
         businessHours.setOpen(businessHoursDto.isOpen());
         
         BusinessHours updatedBusinessHours = businessHoursRepository.save(businessHours);
+        eventPublisher.publishEvent(new CatalogChangedEvent(updatedBusinessHours.getBusiness().getId()));
         return convertToDto(updatedBusinessHours);
     }
 
     @Override
     @Transactional
     public void deleteBusinessHours(Long id) {
-        if (!businessHoursRepository.existsById(id)) {
-            throw new EntityNotFoundException("Business hours not found");
-        }
-        businessHoursRepository.deleteById(id);
+        BusinessHours businessHours = businessHoursRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Business hours not found"));
+        businessHoursRepository.delete(businessHours);
+        eventPublisher.publishEvent(new CatalogChangedEvent(businessHours.getBusiness().getId()));
     }
 
     @Override
@@ -112,6 +119,7 @@ public class BusinessHoursServiceImpl implements BusinessHoursService {
         businessHours.setOpen(isOpen);
         
         BusinessHours updatedBusinessHours = businessHoursRepository.save(businessHours);
+        eventPublisher.publishEvent(new CatalogChangedEvent(updatedBusinessHours.getBusiness().getId()));
         return convertToDto(updatedBusinessHours);
     }
     
@@ -1,8 +1,10 @@
 package com.zentra.api.service.impl;
 
+import com.zentra.api.catalog.BusinessCategories;
 import com.zentra.api.dto.BusinessHoursDto;
 import com.zentra.api.dto.BusinessProfileDto;
 import com.zentra.api.dto.ServiceDto;
+import com.zentra.api.event.CatalogChangedEvent;
 import com.zentra.api.model.BusinessHours;
 import com.zentra.api.model.BusinessProfile;
 import com.zentra.api.model.User;
@@ -13,6 +15,7 @@ import com.zentra.api.repository.UserRepository;
 import com.zentra.api.service.BusinessProfileService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,17 +31,20 @@ public class BusinessProfileServiceImpl implements BusinessProfileService {
     private final UserRepository userRepository;
     private final ServiceRepository serviceRepository;
     private final BusinessHoursRepository businessHoursRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public BusinessProfileServiceImpl(
             BusinessProfileRepository businessProfileRepository,
             UserRepository userRepository,
             ServiceRepository serviceRepository,
-            BusinessHoursRepository businessHoursRepository) {
+            BusinessHoursRepository businessHoursRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.businessProfileRepository = businessProfileRepository;
         this.userRepository = userRepository;
         this.serviceRepository = serviceRepository;
         this.businessHoursRepository = businessHoursRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -55,12 +61,15 @@ public class BusinessProfileServiceImpl implements BusinessProfileService {
         businessProfile.setCity(businessProfileDto.getCity());
         businessProfile.setState(businessProfileDto.getState());
         businessProfile.setZipCode(businessProfileDto.getZipCode());
+        setLocation(businessProfile, businessProfileDto);
         businessProfile.setPhoneNumber(businessProfileDto.getPhoneNumber());
         businessProfile.setWebsite(businessProfileDto.getWebsite());
         businessProfile.setLogoUrl(businessProfileDto.getLogoUrl());
+        businessProfile.setCategory(categoryOf(businessProfileDto));
         businessProfile.setActive(businessProfileDto.isActive());
 
         BusinessProfile savedBusinessProfile = businessProfileRepository.save(businessProfile);
+        eventPublisher.publishEvent(new CatalogChangedEvent(savedBusinessProfile.getId()));
         return convertToDto(savedBusinessProfile);
     }
 
@@ -102,13 +111,16 @@ public class BusinessProfileServiceImpl implements BusinessProfileService {
         businessProfile.setCity(businessProfileDto.getCity());
         businessProfile.setState(businessProfileDto.getState());
         businessProfile.setZipCode(businessProfileDto.getZipCode());
+        setLocation(businessProfile, businessProfileDto);
         businessProfile.setPhoneNumber(businessProfileDto.getPhoneNumber());
         businessProfile.setWebsite(businessProfileDto.getWebsite());
         businessProfile.setLogoUrl(businessProfileDto.getLogoUrl());
+        businessProfile.setCategory(categoryOf(businessProfileDto));
         businessProfile.setActive(businessProfileDto.isActive());
         businessProfile.setUpdatedAt(LocalDateTime.now());
 
         BusinessProfile updatedBusinessProfile = businessProfileRepository.save(businessProfile);
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
         return convertToDto(updatedBusinessProfile);
     }
 
@@ -119,6 +131,7 @@ public class BusinessProfileServiceImpl implements BusinessProfileService {
             throw new EntityNotFoundException("Business profile not found");
         }
         businessProfileRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
     }
 
     @Override
@@ -128,6 +141,28 @@ public class BusinessProfileServiceImpl implements BusinessProfileService {
         return businessProfileRepository.existsByOwner(owner);
     }
 
+    // Coordinates are set in pairs; without them the business is placed at the centre of its zip code
+    private void setLocation(BusinessProfile businessProfile, BusinessProfileDto businessProfileDto) {
+        Double latitude = businessProfileDto.getLatitude();
+        Double longitude = businessProfileDto.getLongitude();
+        if ((latitude == null) != (longitude == null)) {
+            throw new IllegalArgumentException("Latitude and longitude must be given together");
+        }
+        if (latitude != null && (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180)) {
+            throw new IllegalArgumentException("Latitude or longitude out of range");
+        }
+        businessProfile.setLatitude(latitude);
+        businessProfile.setLongitude(longitude);
+    }
+
+    // Businesses that don't pick a category get one from the keywords in their name and description
+    private String categoryOf(BusinessProfileDto businessProfileDto) {
+        if (businessProfileDto.getCategory() != null && !businessProfileDto.getCategory().isBlank()) {
+            return businessProfileDto.getCategory().trim();
+        }
+        return BusinessCategories.determine(businessProfileDto.getBusinessName(), businessProfileDto.getDescription());
+    }
+
     private BusinessProfileDto convertToDto(BusinessProfile businessProfile) {
         BusinessProfileDto dto = new BusinessProfileDto();
         dto.setId(businessProfile.getId());
@@ -140,9 +175,12 @@ public class BusinessProfileServiceImpl implements BusinessProfileService {
         dto.setCity(businessProfile.getCity());
         dto.setState(businessProfile.getState());
         dto.setZipCode(businessProfile.getZipCode());
+        dto.setLatitude(businessProfile.getLatitude());
+        dto.setLongitude(businessProfile.getLongitude());
         dto.setPhoneNumber(businessProfile.getPhoneNumber());
         dto.setWebsite(businessProfile.getWebsite());
         dto.setLogoUrl(businessProfile.getLogoUrl());
+        dto.setCategory(businessProfile.getCategory());
         dto.setActive(businessProfile.isActive());
 
         // Convert services
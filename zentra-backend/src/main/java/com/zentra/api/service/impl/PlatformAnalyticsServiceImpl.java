@@ -0,0 +1,131 @@
+package com.zentra.api.service.impl;
+
+import com.zentra.api.analytics.BusinessTotals;
+import com.zentra.api.analytics.PlatformAnalyticsAccumulator;
+import com.zentra.api.dto.PlatformAnalyticsDto;
+import com.zentra.api.repository.AppointmentRepository;
+import com.zentra.api.repository.BusinessDailyStatsRepository;
+import com.zentra.api.repository.BusinessProfileRepository;
+import com.zentra.api.service.PlatformAnalyticsService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Aggregates the daily rollup of every business. Business ids are split in
+// halves until a chunk is small enough, each chunk is summed by one query in
+// its own read-only transaction on a dedicated fork-join pool, and the partial
+// results are merged on the way back up.
+@Component
+public class PlatformAnalyticsServiceImpl implements PlatformAnalyticsService {
+
+    // Approximate mode reads one customer sketch per business and day, so the
+    // period bounds how many sketches a request loads
+    private static final int MAX_PERIOD_DAYS = 366;
+
+    private final BusinessProfileRepository businessProfileRepository;
+    private final BusinessDailyStatsRepository statsRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    @Autowired
+    public PlatformAnalyticsServiceImpl(
+            BusinessProfileRepository businessProfileRepository,
+            BusinessDailyStatsRepository statsRepository,
+            AppointmentRepository appointmentRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${zentra.analytics.platform.parallelism:0}") int parallelism,
+            @Value("${zentra.analytics.platform.chunk-size:500}") int chunkSize) {
+        this.businessProfileRepository = businessProfileRepository;
+        this.statsRepository = statsRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Each worker holds a database connection while it runs a chunk, so keep
+        // this at or below the connection pool size
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public PlatformAnalyticsDto getPlatformAnalytics(LocalDate startDate, LocalDate endDate, boolean exact) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_PERIOD_DAYS) {
+            throw new IllegalArgumentException("Period cannot exceed " + MAX_PERIOD_DAYS + " days");
+        }
+        List<Long> businessIds = businessProfileRepository.findAllIds();
+        PlatformAnalyticsAccumulator totals = businessIds.isEmpty()
+                ? new PlatformAnalyticsAccumulator()
+                : pool.invoke(new ChunkTask(businessIds, startDate, endDate, exact));
+
+        // Customers can book several businesses, so an exact count is one query over every appointment
+        long customers = !exact && totals.hasCustomerSketches()
+                ? totals.estimateCustomers()
+                : appointmentRepository.countDistinctCustomers(startDate, endDate);
+        return totals.toDto(startDate, endDate, customers);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private PlatformAnalyticsAccumulator aggregateChunk(List<Long> businessIds, LocalDate startDate, LocalDate endDate,
+                                                        boolean exact) {
+        // Ids are sorted, so the chunk is exactly the businesses in its id range
+        Long firstBusinessId = businessIds.get(0);
+        Long lastBusinessId = businessIds.get(businessIds.size() - 1);
+        PlatformAnalyticsAccumulator accumulator = new PlatformAnalyticsAccumulator();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (BusinessTotals business : statsRepository.sumByBusinessIdRange(
+                    firstBusinessId, lastBusinessId, startDate, endDate)) {
+                accumulator.add(business);
+            }
+            if (!exact) {
+                statsRepository.findCustomerSketchesByBusinessIdRange(firstBusinessId, lastBusinessId, startDate, endDate)
+                        .forEach(accumulator::addCustomerSketch);
+            }
+        });
+        return accumulator;
+    }
+
+    private final class ChunkTask extends RecursiveTask<PlatformAnalyticsAccumulator> {
+        private final List<Long> businessIds;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final boolean exact;
+
+        private ChunkTask(List<Long> businessIds, LocalDate startDate, LocalDate endDate, boolean exact) {
+            this.businessIds = businessIds;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.exact = exact;
+        }
+
+        @Override
+        protected PlatformAnalyticsAccumulator compute() {
+            if (businessIds.size() <= chunkSize) {
+                return aggregateChunk(businessIds, startDate, endDate, exact);
+            }
+            int middle = businessIds.size() / 2;
+            ChunkTask left = new ChunkTask(businessIds.subList(0, middle), startDate, endDate, exact);
+            ChunkTask right = new ChunkTask(businessIds.subList(middle, businessIds.size()), startDate, endDate,
+                    exact);
+            left.fork();
+            PlatformAnalyticsAccumulator rightTotals = right.compute();
+            return left.join().merge(rightTotals);
+        }
+    }
+}
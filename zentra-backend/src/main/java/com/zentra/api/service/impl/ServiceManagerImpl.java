@@ -1,12 +1,14 @@
 package com.zentra.api.service.impl;
 
 import com.zentra.api.dto.ServiceDto;
+import com.zentra.api.event.CatalogChangedEvent;
 import com.zentra.api.model.BusinessProfile;
 import com.zentra.api.repository.BusinessProfileRepository;
 import com.zentra.api.repository.ServiceRepository;
 import com.zentra.api.service.ServiceManager;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,13 +21,16 @@ public class ServiceManagerImpl implements ServiceManager {
 
     private final ServiceRepository serviceRepository;
     private final BusinessProfileRepository businessProfileRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public ServiceManagerImpl(
             ServiceRepository serviceRepository,
-            BusinessProfileRepository businessProfileRepository) {
+            BusinessProfileRepository businessProfileRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.serviceRepository = serviceRepository;
         this.businessProfileRepository = businessProfileRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -44,6 +49,7 @@ public class ServiceManagerImpl implements ServiceManager {
         service.setActive(serviceDto.isActive());
         
         com.zentra.api.model.Service savedService = serviceRepository.save(service);
+        eventPublisher.publishEvent(new CatalogChangedEvent(businessProfile.getId()));
         return convertToDto(savedService);
     }
 
@@ -87,16 +93,17 @@ public class ServiceManagerImpl implements ServiceManager {
         service.setUpdatedAt(LocalDateTime.now());
         
         com.zentra.api.model.Service updatedService = serviceRepository.save(service);
+        eventPublisher.publishEvent(new CatalogChangedEvent(updatedService.getBusiness().getId()));
         return convertToDto(updatedService);
     }
 
     @Override
     @Transactional
     public void deleteService(Long id) {
-        if (!serviceRepository.existsById(id)) {
-            throw new EntityNotFoundException("Service not found");
-        }
-        serviceRepository.deleteById(id);
+        com.zentra.api.model.Service service = serviceRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Service not found"));
+        serviceRepository.delete(service);
+        eventPublisher.publishEvent(new CatalogChangedEvent(service.getBusiness().getId()));
     }
 
     @Override
@@ -109,6 +116,7 @@ public class ServiceManagerImpl implements ServiceManager {
         service.setUpdatedAt(LocalDateTime.now());
         
         com.zentra.api.model.Service updatedService = serviceRepository.save(service);
+        eventPublisher.publishEvent(new CatalogChangedEvent(updatedService.getBusiness().getId()));
         return convertToDto(updatedService);
     }
     
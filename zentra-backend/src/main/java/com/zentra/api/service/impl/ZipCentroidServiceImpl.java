@@ -0,0 +1,91 @@
+package com.zentra.api.service.impl;
+
+import com.zentra.api.event.ZipCentroidsImportedEvent;
+import com.zentra.api.repository.ZipCentroidRepository;
+import com.zentra.api.service.ZipCentroidService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+public class ZipCentroidServiceImpl implements ZipCentroidService {
+
+    // Centroids written per statement
+    private static final int BATCH_SIZE = 1000;
+
+    private final ZipCentroidRepository zipCentroidRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public ZipCentroidServiceImpl(
+            ZipCentroidRepository zipCentroidRepository,
+            ApplicationEventPublisher eventPublisher) {
+        this.zipCentroidRepository = zipCentroidRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // The whole file is loaded in one transaction, so a bad line leaves the table as it was
+    @Override
+    @Transactional
+    public int importCsv(InputStream csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        // Keyed by zip code, since one statement cannot write the same row twice; the last line wins
+        Map<String, double[]> batch = new LinkedHashMap<>();
+        int imported = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && line.toLowerCase(Locale.ROOT).startsWith("zip"))) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 3 || fields[0].isBlank()) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected zip_code,latitude,longitude");
+            }
+            batch.put(fields[0].trim(), new double[]{
+                    parseCoordinate(fields[1], 90, lineNumber), parseCoordinate(fields[2], 180, lineNumber)});
+            if (batch.size() == BATCH_SIZE) {
+                imported += upsert(batch);
+            }
+        }
+        imported += upsert(batch);
+        eventPublisher.publishEvent(new ZipCentroidsImportedEvent(imported));
+        return imported;
+    }
+
+    private int upsert(Map<String, double[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int count = batch.size();
+        String[] zipCodes = batch.keySet().toArray(String[]::new);
+        Double[] latitudes = batch.values().stream().map(centroid -> centroid[0]).toArray(Double[]::new);
+        Double[] longitudes = batch.values().stream().map(centroid -> centroid[1]).toArray(Double[]::new);
+        zipCentroidRepository.upsertAll(zipCodes, latitudes, longitudes);
+        batch.clear();
+        return count;
+    }
+
+    private static double parseCoordinate(String field, double limit, int lineNumber) {
+        try {
+            double value = Double.parseDouble(field.trim());
+            if (Math.abs(value) <= limit) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below together with out of range values
+        }
+        throw new IllegalArgumentException("Line " + lineNumber + ": invalid coordinate " + field.trim());
+    }
+}
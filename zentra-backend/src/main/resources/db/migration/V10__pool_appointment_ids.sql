@@ -0,0 +1,2 @@
+-- Hand out appointment ids in blocks of 50 so Hibernate can batch inserts
+ALTER SEQUENCE appointments_id_seq INCREMENT BY 50;
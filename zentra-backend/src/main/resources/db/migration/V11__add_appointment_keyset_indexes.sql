@@ -0,0 +1,4 @@
+-- Composite indexes backing keyset pagination on (date, start_time, id)
+CREATE INDEX idx_appointments_business_keyset ON appointments(business_id, date, start_time, id);
+
+CREATE INDEX idx_appointments_customer_keyset ON appointments(customer_id, date, start_time, id);
@@ -0,0 +1,66 @@
+-- Per business per day rollup of appointment analytics, kept current by the appointment service
+CREATE TABLE business_daily_stats (
+    id BIGSERIAL PRIMARY KEY,
+    business_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    pending_count INT NOT NULL DEFAULT 0,
+    confirmed_count INT NOT NULL DEFAULT 0,
+    completed_count INT NOT NULL DEFAULT 0,
+    cancelled_count INT NOT NULL DEFAULT 0,
+    no_show_count INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    new_bookings INT NOT NULL DEFAULT 0,
+    new_customers INT NOT NULL DEFAULT 0,
+    returning_customers INT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_business_daily_stats_business FOREIGN KEY (business_id) REFERENCES business_profiles(id) ON DELETE CASCADE,
+    CONSTRAINT uk_business_daily_stats_business_date UNIQUE (business_id, date)
+);
+
+CREATE TABLE business_daily_service_stats (
+    id BIGSERIAL PRIMARY KEY,
+    business_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    service_id BIGINT NOT NULL,
+    bookings INT NOT NULL,
+    revenue DECIMAL(12, 2) NOT NULL,
+    CONSTRAINT fk_business_daily_service_stats_business FOREIGN KEY (business_id) REFERENCES business_profiles(id) ON DELETE CASCADE,
+    CONSTRAINT fk_business_daily_service_stats_service FOREIGN KEY (service_id) REFERENCES services(id) ON DELETE CASCADE,
+    CONSTRAINT uk_business_daily_service_stats UNIQUE (business_id, date, service_id)
+);
+
+-- Support the per-day refresh: bookings made on a day, and each customer's first appointment
+CREATE INDEX idx_appointments_business_created_at ON appointments(business_id, created_at);
+CREATE INDEX idx_appointments_business_customer_date ON appointments(business_id, customer_id, date);
+
+-- Backfill from existing appointments
+INSERT INTO business_daily_stats (business_id, date)
+SELECT business_id, date FROM appointments
+UNION
+SELECT business_id, CAST(created_at AS DATE) FROM appointments;
+
+UPDATE business_daily_stats s
+SET (pending_count, confirmed_count, completed_count, cancelled_count, no_show_count,
+     revenue, new_customers, returning_customers) = (
+        SELECT count(*) FILTER (WHERE a.status = 'PENDING'),
+               count(*) FILTER (WHERE a.status = 'CONFIRMED'),
+               count(*) FILTER (WHERE a.status = 'COMPLETED'),
+               count(*) FILTER (WHERE a.status = 'CANCELLED'),
+               count(*) FILTER (WHERE a.status = 'NO_SHOW'),
+               COALESCE(sum(a.price) FILTER (WHERE a.status IN ('CONFIRMED', 'COMPLETED')), 0),
+               count(DISTINCT a.customer_id) FILTER (WHERE NOT EXISTS (
+                       SELECT 1 FROM appointments p
+                       WHERE p.business_id = a.business_id AND p.customer_id = a.customer_id AND p.date < a.date)),
+               count(DISTINCT a.customer_id) FILTER (WHERE EXISTS (
+                       SELECT 1 FROM appointments p
+                       WHERE p.business_id = a.business_id AND p.customer_id = a.customer_id AND p.date < a.date))
+        FROM appointments a
+        WHERE a.business_id = s.business_id AND a.date = s.date),
+    new_bookings = (
+        SELECT count(*) FROM appointments a
+        WHERE a.business_id = s.business_id AND a.created_at >= s.date AND a.created_at < s.date + 1);
+
+INSERT INTO business_daily_service_stats (business_id, date, service_id, bookings, revenue)
+SELECT business_id, date, service_id, count(*),
+       COALESCE(sum(price) FILTER (WHERE status IN ('CONFIRMED', 'COMPLETED')), 0)
+FROM appointments
+GROUP BY business_id, date, service_id;
@@ -0,0 +1,20 @@
+-- Per-day histograms behind the booking heatmap and lead time analytics:
+-- non-cancelled appointments by start hour (24 entries) and all appointments
+-- by lead time bucket (11 entries, boundaries as in BusinessDailyStatsRepository)
+ALTER TABLE business_daily_stats
+    ADD COLUMN hourly_counts INT[] NOT NULL DEFAULT array_fill(0, ARRAY[24]),
+    ADD COLUMN lead_time_counts INT[] NOT NULL DEFAULT array_fill(0, ARRAY[11]);
+
+UPDATE business_daily_stats s
+SET hourly_counts = ARRAY(
+        SELECT CAST(count(a.id) AS INT)
+        FROM generate_series(0, 23) AS h
+        LEFT JOIN appointments a ON a.business_id = s.business_id AND a.date = s.date
+            AND a.status <> 'CANCELLED' AND extract(hour FROM a.start_time) = h
+        GROUP BY h ORDER BY h),
+    lead_time_counts = ARRAY(
+        SELECT CAST(count(a.id) AS INT)
+        FROM generate_series(0, 10) AS b
+        LEFT JOIN appointments a ON a.business_id = s.business_id AND a.date = s.date
+            AND width_bucket(a.date - CAST(a.created_at AS DATE), ARRAY[1, 2, 3, 4, 8, 15, 31, 61, 91, 181]) = b
+        GROUP BY b ORDER BY b);
@@ -0,0 +1,4 @@
+-- HyperLogLog sketch of the customers with an appointment on the day, merged to
+-- estimate distinct customers over a period. NULL until the rollup recomputes the
+-- day; the weekly rebuild fills in rows that existed before this column.
+ALTER TABLE business_daily_stats ADD COLUMN customer_sketch BYTEA;
@@ -0,0 +1,8 @@
+-- Rollup revenue as whole cents, so analytics can sum it without BigDecimal arithmetic
+ALTER TABLE business_daily_stats ALTER COLUMN revenue DROP DEFAULT;
+ALTER TABLE business_daily_stats ALTER COLUMN revenue TYPE BIGINT USING CAST(revenue * 100 AS BIGINT);
+ALTER TABLE business_daily_stats ALTER COLUMN revenue SET DEFAULT 0;
+ALTER TABLE business_daily_stats RENAME COLUMN revenue TO revenue_cents;
+
+ALTER TABLE business_daily_service_stats ALTER COLUMN revenue TYPE BIGINT USING CAST(revenue * 100 AS BIGINT);
+ALTER TABLE business_daily_service_stats RENAME COLUMN revenue TO revenue_cents;
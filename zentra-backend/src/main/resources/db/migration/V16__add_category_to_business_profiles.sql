@@ -0,0 +1,14 @@
+-- Listing category of a business, previously guessed from keywords in its
+-- name and description on every request. Existing businesses are backfilled
+-- with the same keyword rules as BusinessCategories.
+ALTER TABLE business_profiles ADD COLUMN category VARCHAR(50) NOT NULL DEFAULT 'Other';
+
+UPDATE business_profiles b
+SET category = CASE
+        WHEN t.text LIKE '%spa%' OR t.text LIKE '%massage%' OR t.text LIKE '%wellness%' THEN 'Wellness'
+        WHEN t.text LIKE '%salon%' OR t.text LIKE '%hair%' OR t.text LIKE '%beauty%' OR t.text LIKE '%nail%' THEN 'Beauty'
+        WHEN t.text LIKE '%gym%' OR t.text LIKE '%fitness%' OR t.text LIKE '%training%' THEN 'Fitness'
+        ELSE 'Other'
+    END
+FROM (SELECT id, lower(business_name) || ' ' || lower(COALESCE(description, '')) AS text FROM business_profiles) t
+WHERE t.id = b.id;
@@ -0,0 +1,10 @@
+-- Centre of each postal code, loaded from a postal code dataset. Businesses
+-- without coordinates of their own are placed at the centre of their zip code.
+CREATE TABLE zip_centroids (
+    zip_code VARCHAR(20) PRIMARY KEY,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL
+);
+
+ALTER TABLE business_profiles ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE business_profiles ADD COLUMN longitude DOUBLE PRECISION;
@@ -0,0 +1,4 @@
+-- Assign appointments to the staff member who performs them
+ALTER TABLE appointments ADD COLUMN staff_id BIGINT REFERENCES staff(id) ON DELETE SET NULL;
+
+CREATE INDEX idx_appointments_staff_id ON appointments(staff_id);
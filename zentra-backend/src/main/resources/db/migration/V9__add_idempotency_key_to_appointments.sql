@@ -0,0 +1,5 @@
+-- Client-supplied idempotency key for appointment creation, unique per customer
+ALTER TABLE appointments ADD COLUMN idempotency_key VARCHAR(100);
+
+CREATE UNIQUE INDEX uk_appointments_customer_idempotency_key
+    ON appointments(customer_id, idempotency_key);
@@ -0,0 +1,120 @@
+package com.zentra.api;
+
+import com.zentra.api.model.Appointment;
+import com.zentra.api.model.AppointmentStatus;
+import com.zentra.api.model.BusinessHours;
+import com.zentra.api.model.BusinessProfile;
+import com.zentra.api.model.Role;
+import com.zentra.api.model.Service;
+import com.zentra.api.model.Staff;
+import com.zentra.api.model.User;
+import com.zentra.api.repository.AppointmentRepository;
+import com.zentra.api.repository.BusinessHoursRepository;
+import com.zentra.api.repository.BusinessProfileRepository;
+import com.zentra.api.repository.ServiceRepository;
+import com.zentra.api.repository.StaffRepository;
+import com.zentra.api.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+// Creates the users, businesses, services and staff a test needs. Every call
+// makes new rows with unique emails, so tests sharing the database stay apart.
+@TestComponent
+public class TestFixtures {
+
+    private final UserRepository userRepository;
+    private final BusinessProfileRepository businessProfileRepository;
+    private final ServiceRepository serviceRepository;
+    private final StaffRepository staffRepository;
+    private final BusinessHoursRepository businessHoursRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    @Autowired
+    public TestFixtures(UserRepository userRepository,
+                        BusinessProfileRepository businessProfileRepository,
+                        ServiceRepository serviceRepository,
+                        StaffRepository staffRepository,
+                        BusinessHoursRepository businessHoursRepository,
+                        AppointmentRepository appointmentRepository) {
+        this.userRepository = userRepository;
+        this.businessProfileRepository = businessProfileRepository;
+        this.serviceRepository = serviceRepository;
+        this.staffRepository = staffRepository;
+        this.businessHoursRepository = businessHoursRepository;
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    public User user(Role role) {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    // An active business open 09:00-17:00 every day
+    public BusinessProfile business(String name) {
+        BusinessProfile business = new BusinessProfile();
+        business.setOwner(user(Role.ROLE_BUSINESS_OWNER));
+        business.setBusinessName(name);
+        business.setCategory("Other");
+        business.setCity("Istanbul");
+        business.setZipCode("34000");
+        business = businessProfileRepository.save(business);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            BusinessHours hours = new BusinessHours();
+            hours.setBusiness(business);
+            hours.setDayOfWeek(day);
+            hours.setOpenTime(LocalTime.of(9, 0));
+            hours.setCloseTime(LocalTime.of(17, 0));
+            hours.setOpen(true);
+            businessHoursRepository.save(hours);
+        }
+        return business;
+    }
+
+    public Service service(BusinessProfile business, String name, int durationMinutes) {
+        Service service = new Service();
+        service.setBusiness(business);
+        service.setName(name);
+        service.setDurationMinutes(durationMinutes);
+        service.setPrice(new BigDecimal("25.00"));
+        return serviceRepository.save(service);
+    }
+
+    // A staff member qualified for the given service
+    public Staff staff(BusinessProfile business, Service service) {
+        Staff staff = new Staff();
+        staff.setBusiness(business);
+        staff.setFirstName("Staff");
+        staff.setLastName("Member");
+        staff.getServices().add(service);
+        return staffRepository.save(staff);
+    }
+
+    // Saved straight through the repository, skipping the booking rules, so
+    // tests can place appointments in the past or in any status
+    public Appointment appointment(User customer, Service service, Staff staff, LocalDate date,
+                                   LocalTime startTime, AppointmentStatus status) {
+        Appointment appointment = new Appointment();
+        appointment.setCustomer(customer);
+        appointment.setBusiness(service.getBusiness());
+        appointment.setService(service);
+        appointment.setStaff(staff);
+        appointment.setDate(date);
+        appointment.setStartTime(startTime);
+        appointment.setEndTime(startTime.plusMinutes(service.getDurationMinutes()));
+        appointment.setDurationMinutes(service.getDurationMinutes());
+        appointment.setPrice(service.getPrice());
+        appointment.setStatus(status);
+        return appointmentRepository.save(appointment);
+    }
+}
@@ -0,0 +1,56 @@
+package com.zentra.api.analytics;
+
+import com.zentra.api.event.AppointmentChangedEvent;
+import com.zentra.api.event.CatalogChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BusinessAnalyticsCacheTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 1, 7);
+
+    private final BusinessAnalyticsCache cache = new BusinessAnalyticsCache(new SimpleMeterRegistry(), 100);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void appointmentChangeReloadsOnlyThatBusiness() {
+        load(1L);
+        load(2L);
+
+        cache.onAppointmentChanged(new AppointmentChangedEvent(1L));
+
+        assertEquals(3, load(1L));
+        assertEquals(2, load(2L));
+    }
+
+    @Test
+    void catalogChangeReloads() {
+        load(1L);
+        assertEquals(1, load(1L));
+
+        cache.onCatalogChanged(new CatalogChangedEvent(1L));
+
+        assertEquals(2, load(1L));
+    }
+
+    @Test
+    void invalidationDuringLoadIsNotMissed() {
+        cache.get(1L, BusinessAnalyticsCache.Period.WEEKLY, true, START, END, () -> {
+            cache.invalidate(1L);
+            return loads.incrementAndGet();
+        });
+
+        assertEquals(2, load(1L));
+        assertEquals(2, load(1L));
+    }
+
+    private int load(Long businessId) {
+        return cache.get(businessId, BusinessAnalyticsCache.Period.WEEKLY, true, START, END, loads::incrementAndGet);
+    }
+}
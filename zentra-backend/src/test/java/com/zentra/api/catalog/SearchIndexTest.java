@@ -0,0 +1,43 @@
+package com.zentra.api.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class SearchIndexTest {
+
+    private final SearchIndex index = build(
+            "Bella Salon", "Haircut",
+            "Kral Barber", "Haircut",
+            "Salonu Güzellik", "Nails",
+            "Sultan Spa", "Massage");
+
+    @Test
+    void lastTermMatchesAsPrefix() {
+        assertArrayEquals(new int[]{0, 2}, index.search("sal", 0, 10));
+        assertArrayEquals(new int[]{1}, index.search("barb", 0, 10));
+    }
+
+    @Test
+    void earlierTermsMatchExactly() {
+        assertArrayEquals(new int[]{0, 1}, index.search("haircut b", 0, 10));
+        assertArrayEquals(new int[0], index.search("hair barber", 0, 10));
+    }
+
+    @Test
+    void listingMatchingSeveralCompletionsIsReturnedOnce() {
+        // "s" completes to salon, salonu, sultan and spa; Sultan Spa matches two of them
+        assertArrayEquals(new int[]{0, 2, 3}, index.search("s", 0, 10));
+    }
+
+    // Pairs of business name and service name, one listing per pair
+    private static SearchIndex build(String... namesAndServices) {
+        SearchIndex.Builder builder = new SearchIndex.Builder();
+        for (int i = 0; i < namesAndServices.length; i += 2) {
+            builder.nextListing();
+            builder.add(namesAndServices[i], SearchIndex.NAME_WEIGHT);
+            builder.add(namesAndServices[i + 1], SearchIndex.SERVICE_WEIGHT);
+        }
+        return builder.build();
+    }
+}
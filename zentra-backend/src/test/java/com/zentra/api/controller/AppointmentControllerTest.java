@@ -0,0 +1,45 @@
+package com.zentra.api.controller;
+
+import com.zentra.api.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@WithMockUser(roles = "BUSINESS_OWNER")
+class AppointmentControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void malformedCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/appointments/business/1").param("cursor", "garbage!!"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+    }
+
+    @Test
+    void pageLimitAboveMaximumIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/appointments/business/1/past").param("limit", "10000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Limit must be between 1 and 200"));
+    }
+
+    @Test
+    void availabilityRangeEndingBeforeItStartsIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/appointments/available-slots/range")
+                        .param("businessId", "1")
+                        .param("serviceId", "1")
+                        .param("startDate", "2030-01-10")
+                        .param("endDate", "2030-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("End date must not be before start date"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.zentra.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zentra.api.PostgresIntegrationTest;
+import com.zentra.api.TestFixtures;
+import com.zentra.api.dto.CreateAppointmentRequest;
+import com.zentra.api.model.BusinessProfile;
+import com.zentra.api.model.Role;
+import com.zentra.api.model.Service;
+import com.zentra.api.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class AppointmentIdempotencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final String KEY = "retry-of-one-booking";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentRetriesWithOneKeyBookOnceAndReplayTheResponse() throws Exception {
+        BusinessProfile business = fixtures.business("Retry Salon");
+        Service service = fixtures.service(business, "Haircut", 60);
+        fixtures.staff(business, service);
+        User customer = fixtures.user(Role.ROLE_CUSTOMER);
+        CreateAppointmentRequest request = new CreateAppointmentRequest(customer.getId(), business.getId(),
+                service.getId(), LocalDate.now().plusDays(7), LocalTime.of(10, 0), 60, null, null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MvcResult>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(create(request, KEY)).andReturn();
+                }));
+            }
+            start.countDown();
+
+            Long appointmentId = null;
+            for (Future<MvcResult> result : results) {
+                MvcResult response = result.get(30, TimeUnit.SECONDS);
+                assertEquals(201, response.getResponse().getStatus());
+                JsonNode body = objectMapper.readTree(response.getResponse().getContentAsString());
+                if (appointmentId == null) {
+                    appointmentId = body.get("id").asLong();
+                }
+                assertEquals(appointmentId, body.get("id").asLong());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Integer stored = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM appointments WHERE business_id = ?", Integer.class, business.getId());
+        assertEquals(1, stored);
+    }
+
+    @Test
+    void keyReusedForADifferentRequestIsRejected() throws Exception {
+        BusinessProfile business = fixtures.business("Reuse Salon");
+        Service service = fixtures.service(business, "Haircut", 60);
+        fixtures.staff(business, service);
+        User customer = fixtures.user(Role.ROLE_CUSTOMER);
+        LocalDate date = LocalDate.now().plusDays(7);
+        CreateAppointmentRequest first = new CreateAppointmentRequest(customer.getId(), business.getId(),
+                service.getId(), date, LocalTime.of(10, 0), 60, null, null);
+        CreateAppointmentRequest changed = new CreateAppointmentRequest(customer.getId(), business.getId(),
+                service.getId(), date, LocalTime.of(14, 0), 60, null, null);
+
+        mockMvc.perform(create(first, KEY)).andExpect(status().isCreated());
+        mockMvc.perform(create(changed, KEY))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Idempotency key was already used for a different request"));
+
+        Integer stored = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM appointments WHERE business_id = ?", Integer.class, business.getId());
+        assertEquals(1, stored);
+    }
+
+    private RequestBuilder create(CreateAppointmentRequest request, String idempotencyKey) throws Exception {
+        return post("/api/appointments")
+                .with(user("customer").roles("CUSTOMER"))
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+    }
+}
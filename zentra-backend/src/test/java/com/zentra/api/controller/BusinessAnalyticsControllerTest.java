@@ -0,0 +1,47 @@
+package com.zentra.api.controller;
+
+import com.zentra.api.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@WithMockUser(roles = "BUSINESS_OWNER")
+class BusinessAnalyticsControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void periodEndingBeforeItStartsIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/business-analytics/1/period")
+                        .param("startDate", "2030-01-10")
+                        .param("endDate", "2030-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("End date must not be before start date"));
+    }
+
+    @Test
+    void periodLongerThanMaximumIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/business-analytics/1/period")
+                        .param("startDate", "2000-01-01")
+                        .param("endDate", "2030-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Period cannot exceed 366 days"));
+    }
+
+    @Test
+    void comparisonPeriodEndingBeforeItStartsIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/business-analytics/1/period/compare")
+                        .param("startDate", "2030-01-10")
+                        .param("endDate", "2030-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("End date must not be before start date"));
+    }
+}
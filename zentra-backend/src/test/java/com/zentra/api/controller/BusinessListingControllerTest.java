@@ -0,0 +1,34 @@
+package com.zentra.api.controller;
+
+import com.zentra.api.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@WithMockUser
+class BusinessListingControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void oversizedSearchPageIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/business-listings/search").param("query", "hair").param("size", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Size must be between 1 and 100"));
+    }
+
+    @Test
+    void nearbyOutsideValidCoordinatesIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/business-listings/nearby").param("latitude", "91").param("longitude", "29"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Latitude or longitude out of range"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.zentra.api.controller;
+
+import com.zentra.api.PostgresIntegrationTest;
+import com.zentra.api.TestFixtures;
+import com.zentra.api.catalog.BusinessCatalog;
+import com.zentra.api.dto.NearbyBusinessListingDto;
+import com.zentra.api.model.BusinessProfile;
+import com.zentra.api.repository.ZipCentroidRepository;
+import com.zentra.api.service.BusinessListingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class ZipCentroidControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private BusinessCatalog businessCatalog;
+
+    @Autowired
+    private BusinessListingService businessListingService;
+
+    @Autowired
+    private ZipCentroidRepository zipCentroidRepository;
+
+    @Test
+    void businessWithOnlyAZipCodeIsFoundNearItsCentroid() throws Exception {
+        // Fixture businesses have zip code 34000 and no coordinates of their own
+        BusinessProfile business = fixtures.business("Zip Only Barber");
+
+        mockMvc.perform(put("/api/zip-centroids")
+                        .contentType("text/csv")
+                        .content("zip_code,latitude,longitude\n34000,41.0082,28.9784\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Imported 1 zip centroids"));
+        businessCatalog.load();
+
+        List<NearbyBusinessListingDto> nearby = businessListingService.getNearbyBusinessListings(
+                41.01, 28.98, 1, null, false, 100);
+        assertTrue(nearby.stream().anyMatch(result -> result.getListing().getId().equals(business.getId())));
+    }
+
+    @Test
+    void invalidLineRejectsTheWholeFile() throws Exception {
+        mockMvc.perform(put("/api/zip-centroids")
+                        .contentType("text/csv")
+                        .content("34901,41.0,29.0\n34902,95.0,29.0\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Line 2: invalid coordinate 95.0"));
+        assertFalse(zipCentroidRepository.existsById("34901"));
+    }
+}
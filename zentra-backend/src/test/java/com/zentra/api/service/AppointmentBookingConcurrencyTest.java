@@ -0,0 +1,97 @@
+package com.zentra.api.service;
+
+import com.zentra.api.PostgresIntegrationTest;
+import com.zentra.api.TestFixtures;
+import com.zentra.api.dto.AppointmentDto;
+import com.zentra.api.dto.CreateAppointmentRequest;
+import com.zentra.api.exception.BookingConflictException;
+import com.zentra.api.model.BusinessProfile;
+import com.zentra.api.model.Role;
+import com.zentra.api.model.Service;
+import com.zentra.api.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class AppointmentBookingConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentBookingsOfOneStaffMemberSucceedOnce() throws Exception {
+        BusinessProfile business = fixtures.business("Contention Salon");
+        Service service = fixtures.service(business, "Haircut", 60);
+        fixtures.staff(business, service);
+        LocalDate date = LocalDate.now().plusDays(7);
+
+        // Half the threads ask for 10:00 and half for the overlapping 10:30
+        List<CreateAppointmentRequest> requests = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User customer = fixtures.user(Role.ROLE_CUSTOMER);
+            LocalTime startTime = i % 2 == 0 ? LocalTime.of(10, 0) : LocalTime.of(10, 30);
+            requests.add(new CreateAppointmentRequest(customer.getId(), business.getId(), service.getId(),
+                    date, startTime, 60, null, null));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AppointmentDto>> results = new ArrayList<>();
+        try {
+            for (CreateAppointmentRequest request : requests) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return appointmentService.createAppointment(request);
+                }));
+            }
+            start.countDown();
+
+            int booked = 0;
+            for (Future<AppointmentDto> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    booked++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(BookingConflictException.class, e.getCause());
+                }
+            }
+            assertEquals(1, booked);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Integer stored = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM appointments WHERE business_id = ? AND status <> 'CANCELLED'",
+                Integer.class, business.getId());
+        Integer overlapping = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM appointments a JOIN appointments b ON a.id < b.id "
+                        + "AND a.staff_id = b.staff_id AND a.date = b.date "
+                        + "AND a.start_time < b.end_time AND b.start_time < a.end_time "
+                        + "WHERE a.business_id = ? AND a.status <> 'CANCELLED' AND b.status <> 'CANCELLED'",
+                Integer.class, business.getId());
+        assertEquals(1, stored);
+        assertEquals(0, overlapping);
+    }
+}
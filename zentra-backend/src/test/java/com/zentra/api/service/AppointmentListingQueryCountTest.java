@@ -0,0 +1,100 @@
+package com.zentra.api.service;
+
+import com.zentra.api.PostgresIntegrationTest;
+import com.zentra.api.TestFixtures;
+import com.zentra.api.model.AppointmentStatus;
+import com.zentra.api.model.BusinessProfile;
+import com.zentra.api.model.Role;
+import com.zentra.api.model.Service;
+import com.zentra.api.model.Staff;
+import com.zentra.api.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+// Every customer and business listing is one projection query, however many
+// appointments, customers and services the result spans
+class AppointmentListingQueryCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long customerId;
+    private Long businessId;
+    private LocalDate upcomingDate;
+
+    @BeforeEach
+    void createAppointments() {
+        BusinessProfile business = fixtures.business("Listing Salon");
+        Service haircut = fixtures.service(business, "Haircut", 30);
+        Service coloring = fixtures.service(business, "Coloring", 60);
+        Staff staff = fixtures.staff(business, haircut);
+        User customer = fixtures.user(Role.ROLE_CUSTOMER);
+        User otherCustomer = fixtures.user(Role.ROLE_CUSTOMER);
+        upcomingDate = LocalDate.now().plusDays(3);
+
+        for (int day = 1; day <= 3; day++) {
+            LocalDate past = LocalDate.now().minusDays(day);
+            LocalDate upcoming = LocalDate.now().plusDays(day);
+            fixtures.appointment(customer, haircut, staff, past, LocalTime.of(9, 0), AppointmentStatus.COMPLETED);
+            fixtures.appointment(otherCustomer, coloring, null, past, LocalTime.of(11, 0), AppointmentStatus.COMPLETED);
+            fixtures.appointment(customer, coloring, null, upcoming, LocalTime.of(9, 0), AppointmentStatus.PENDING);
+            fixtures.appointment(otherCustomer, haircut, staff, upcoming, LocalTime.of(11, 0), AppointmentStatus.PENDING);
+        }
+        customerId = customer.getId();
+        businessId = business.getId();
+    }
+
+    @TestFactory
+    List<DynamicTest> eachListingRunsOneStatement() {
+        return List.of(
+                listing("customer page", () -> appointmentService.getAppointmentsByCustomerId(customerId, null, 50)
+                        .getAppointments()),
+                listing("business page", () -> appointmentService.getAppointmentsByBusinessId(businessId, null, 50)
+                        .getAppointments()),
+                listing("customer by status", () -> appointmentService
+                        .getAppointmentsByCustomerIdAndStatus(customerId, AppointmentStatus.PENDING)),
+                listing("business by status", () -> appointmentService
+                        .getAppointmentsByBusinessIdAndStatus(businessId, AppointmentStatus.COMPLETED)),
+                listing("business by date", () -> appointmentService
+                        .getAppointmentsByBusinessIdAndDate(businessId, upcomingDate)),
+                listing("customer upcoming", () -> appointmentService
+                        .getUpcomingAppointmentsByCustomerId(customerId)),
+                listing("business upcoming", () -> appointmentService
+                        .getUpcomingAppointmentsByBusinessId(businessId)),
+                listing("customer past", () -> appointmentService.getPastAppointmentsByCustomerId(customerId, null, 50)
+                        .getAppointments()),
+                listing("business past", () -> appointmentService.getPastAppointmentsByBusinessId(businessId, null, 50)
+                        .getAppointments()));
+    }
+
+    private DynamicTest listing(String name, Supplier<Collection<?>> call) {
+        return dynamicTest(name, () -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+            Collection<?> appointments = call.get();
+            assertFalse(appointments.isEmpty());
+            assertEquals(1, statistics.getPrepareStatementCount());
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.zentra.api.service;
+
+import com.zentra.api.PostgresIntegrationTest;
+import com.zentra.api.TestFixtures;
+import com.zentra.api.dto.RecurringAppointmentRequest;
+import com.zentra.api.exception.BookingConflictException;
+import com.zentra.api.model.AppointmentStatus;
+import com.zentra.api.model.BusinessProfile;
+import com.zentra.api.model.RecurrenceFrequency;
+import com.zentra.api.model.Role;
+import com.zentra.api.model.Service;
+import com.zentra.api.model.Staff;
+import com.zentra.api.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppointmentRecurringBookingTest extends PostgresIntegrationTest {
+
+    private static final LocalTime START_TIME = LocalTime.of(10, 0);
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void oneConflictingOccurrenceBooksNoneOfTheSeries() {
+        BusinessProfile business = fixtures.business("Conflict Series Salon");
+        Service service = fixtures.service(business, "Haircut", 60);
+        Staff staff = fixtures.staff(business, service);
+        User customer = fixtures.user(Role.ROLE_CUSTOMER);
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        fixtures.appointment(fixtures.user(Role.ROLE_CUSTOMER), service, staff, startDate.plusWeeks(2), START_TIME,
+                AppointmentStatus.CONFIRMED);
+
+        assertThrows(BookingConflictException.class,
+                () -> appointmentService.createRecurringAppointments(weekly(customer, service, startDate, 4)));
+
+        assertEquals(1, appointmentCount(business));
+    }
+
+    @Test
+    void seriesLengthDoesNotChangeTheStatementCount() {
+        int single = bookingStatements(1);
+        int series = bookingStatements(52);
+
+        // 52 ids can span two blocks of the pooled appointment id sequence, so
+        // the series may fetch up to two blocks more than a single booking does
+        assertTrue(series - single <= 2, "single booking " + single + " statements, series " + series);
+    }
+
+    private int bookingStatements(int occurrences) {
+        BusinessProfile business = fixtures.business("Series Salon");
+        Service service = fixtures.service(business, "Haircut", 60);
+        fixtures.staff(business, service);
+        User customer = fixtures.user(Role.ROLE_CUSTOMER);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        appointmentService.createRecurringAppointments(
+                weekly(customer, service, LocalDate.now().plusDays(1), occurrences));
+        int statements = (int) statistics.getPrepareStatementCount();
+
+        assertEquals(occurrences, appointmentCount(business));
+        return statements;
+    }
+
+    private static RecurringAppointmentRequest weekly(User customer, Service service, LocalDate startDate,
+                                                      int occurrences) {
+        return new RecurringAppointmentRequest(customer.getId(), service.getBusiness().getId(), service.getId(),
+                startDate, START_TIME, service.getDurationMinutes(), RecurrenceFrequency.WEEKLY, 1, occurrences,
+                null, null);
+    }
+
+    private int appointmentCount(BusinessProfile business) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM appointments WHERE business_id = ?",
+                Integer.class, business.getId());
+    }
+}
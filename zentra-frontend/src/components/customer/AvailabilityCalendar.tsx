@@ -1,4 +1,4 @@
-import React, { useState } from 'react';
+import React, { useState, useEffect } from 'react';
 import { format, addMonths, subMonths, startOfMonth, endOfMonth, isSameMonth, isSameDay, isToday } from 'date-fns';
 import axios from 'axios';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
@@ -22,10 +22,66 @@ const AvailabilityCalendar: React.FC<AvailabilityCalendarProps> = ({
   const [currentMonth, setCurrentMonth] = useState(new Date());
   const [selectedDate, setSelectedDate] = useState<Date | null>(null);
   const [availableTimeSlots, setAvailableTimeSlots] = useState<string[]>([]);
+  const [monthSlots, setMonthSlots] = useState<Record<string, string[]>>({});
   const [selectedTimeSlot, setSelectedTimeSlot] = useState<string | null>(null);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState<string | null>(null);
 
+  // Load availability for the whole visible month in a single request
+  useEffect(() => {
+    if (!businessId || !serviceId) return;
+
+    const today = new Date(new Date().setHours(0, 0, 0, 0));
+    const monthStart = startOfMonth(currentMonth);
+    const monthEnd = endOfMonth(currentMonth);
+    const rangeStart = monthStart < today ? today : monthStart;
+    if (rangeStart > monthEnd) {
+      setMonthSlots({});
+      return;
+    }
+
+    let cancelled = false;
+    setLoading(true);
+    setError(null);
+
+    axios.get('/api/appointments/available-slots/range', {
+      params: {
+        businessId,
+        serviceId,
+        startDate: format(rangeStart, 'yyyy-MM-dd'),
+        endDate: format(monthEnd, 'yyyy-MM-dd')
+      }
+    })
+      .then(response => {
+        if (!cancelled) {
+          setMonthSlots(response.data);
+        }
+      })
+      .catch(err => {
+        if (!cancelled) {
+          console.error('Error fetching available time slots:', err);
+          setError('Failed to load available times. Please try again.');
+          setMonthSlots({});
+        }
+      })
+      .finally(() => {
+        if (!cancelled) {
+          setLoading(false);
+        }
+      });
+
+    return () => {
+      cancelled = true;
+    };
+  }, [businessId, serviceId, currentMonth]);
+
+  // Keep the selected day's slots in sync with the loaded month
+  useEffect(() => {
+    if (selectedDate && isSameMonth(selectedDate, currentMonth)) {
+      setAvailableTimeSlots(monthSlots[format(selectedDate, 'yyyy-MM-dd')] || []);
+    }
+  }, [monthSlots, selectedDate, currentMonth]);
+
   const nextMonth = () => {
     setCurrentMonth(addMonths(currentMonth, 1));
   };
@@ -43,32 +99,9 @@ const AvailabilityCalendar: React.FC<AvailabilityCalendarProps> = ({
     setSelectedDate(day);
     setSelectedTimeSlot(null);
     onDateSelect(day);
-    fetchAvailableTimeSlots(day);
-  };
-
-  const fetchAvailableTimeSlots = async (date: Date) => {
-    if (!businessId || !serviceId) return;
-    
-    setLoading(true);
-    setError(null);
-    
-    try {
-      const formattedDate = format(date, 'yyyy-MM-dd');
-      const response = await axios.get('/api/appointments/available-slots', {
-        params: {
-          businessId,
-          serviceId,
-          date: formattedDate
-        }
-      });
-      
-      setAvailableTimeSlots(response.data);
-    } catch (err) {
-      console.error('Error fetching available time slots:', err);
-      setError('Failed to load available times. Please try again.');
-      setAvailableTimeSlots([]);
-    } finally {
-      setLoading(false);
+    if (!isSameMonth(day, currentMonth)) {
+      // Days from the neighbouring month load with that month
+      setCurrentMonth(day);
     }
   };
 